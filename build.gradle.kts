@@ -21,4 +21,24 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
+}
+
+// the Vector API classifier is opt-in with -Pvector, as the incubator module warns on every compile and run
+if (providers.gradleProperty("vector").isPresent) {
+    val vector = sourceSets.create("vector") {
+        compileClasspath += sourceSets.main.get().output
+    }
+
+    tasks.named<JavaCompile>(vector.compileJavaTaskName) {
+        options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
+    }
+
+    tasks.jar {
+        from(vector.output)
+    }
+
+    tasks.test {
+        classpath += vector.output
+        jvmArgs("--add-modules", "jdk.incubator.vector")
+    }
 }
\ No newline at end of file
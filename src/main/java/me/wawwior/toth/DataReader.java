@@ -1,6 +1,7 @@
 package me.wawwior.toth;
 
 import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.data.primitives.DataNumber;
 
 import java.io.IOException;
 
@@ -16,6 +17,23 @@ public interface DataReader {
 
     String readKey() throws IOException;
 
+    /**
+     * Reads the next key and looks it up in {@code keys}.
+     * <p>
+     * Implementations should compare the key in place, so keys that aren't selected are never turned into a
+     * {@link String}.
+     * @param keys the keys of interest
+     * @return the index of the key in {@code keys}, or {@code -1} if it isn't one of them.
+     * @throws IOException If the next token is not a key.
+     */
+    default int readKey(String[] keys) throws IOException {
+        String key = readKey();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
     void expectNull() throws IOException;
 
     boolean readBoolean() throws IOException;
@@ -24,6 +42,30 @@ public interface DataReader {
 
     long readLong() throws IOException;
 
+    /**
+     * Checks how the next value, which has to be a number, fits an int, without consuming it.
+     * <p>
+     * This lets a caller reject a number without {@link #readInt()} throwing. The default can't look ahead and
+     * assumes the number fits.
+     *
+     * @return how the number fits an int
+     * @throws IOException If the next token is not a number.
+     */
+    default DataNumber.Fit fitsInt() throws IOException {
+        return DataNumber.Fit.EXACT;
+    }
+
+    /**
+     * Checks how the next value, which has to be a number, fits a long, without consuming it.
+     *
+     * @return how the number fits a long
+     * @throws IOException If the next token is not a number.
+     * @see #fitsInt()
+     */
+    default DataNumber.Fit fitsLong() throws IOException {
+        return DataNumber.Fit.EXACT;
+    }
+
     float readFloat() throws IOException;
 
     double readDouble() throws IOException;
@@ -47,4 +89,15 @@ public interface DataReader {
      * @throws IOException If the next token is not an element.
      */
     DataElement.Type<?> nextType() throws IOException;
+
+    /**
+     * Consumes the next element, including everything nested in it, without reading it.
+     * <p>
+     * By default, the element is read into a {@link DataElement} and discarded. Implementations should override this
+     * with a skip that doesn't build the element.
+     * @throws IOException If the next token is not an element, or the element is malformed.
+     */
+    default void skipValue() throws IOException {
+        DataElement.read(this);
+    }
 }
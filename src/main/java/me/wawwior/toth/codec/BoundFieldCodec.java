@@ -1,5 +1,49 @@
 package me.wawwior.toth.codec;
 
+import me.wawwior.toth.DataReader;
+import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.data.DataMap;
+
+import java.io.IOException;
+
 public interface BoundFieldCodec<O, T> extends FieldEncoder<O>, Decoder<T> {
 
-}
\ No newline at end of file
+    /**
+     * @return the key of this field, or {@code null} if it can only be decoded from a whole {@link DataMap}
+     */
+    default String key() {
+        return null;
+    }
+
+    /**
+     * Decodes the value of this field, after it has been looked up by its {@link #key()}.
+     * <p>
+     * By default, the value is put into a {@link DataMap} under the key and {@link #decode(DataElement) decoded} from
+     * there.
+     *
+     * @param value the value of the key
+     * @return the value, or an error if it could not be decoded
+     */
+    default Result<T, String> decodeValue(DataElement value) {
+        String key = key();
+        if (key == null) return Result.error("Field cannot be decoded without a key!");
+        DataMap map = new DataMap();
+        map.put(key, value);
+        return decode(map);
+    }
+
+    /**
+     * Reads the value of this field, after its {@link #key()} has been read.
+     * <p>
+     * By default, the value is read into a {@link DataElement} and {@link #decodeValue(DataElement) decoded}.
+     *
+     * @param reader the reader
+     * @return the value, or an error if it could not be decoded
+     * @throws IOException Propagated from the reader.
+     */
+    default Result<T, String> readValue(DataReader reader) throws IOException {
+        if (key() == null) return Result.error("Field cannot be read without a key!");
+        return decodeValue(DataElement.read(reader));
+    }
+
+}
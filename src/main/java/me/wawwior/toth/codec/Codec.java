@@ -1,75 +1,63 @@
 package me.wawwior.toth.codec;
 
+import me.wawwior.toth.DataReader;
+import me.wawwior.toth.DataWriter;
 import me.wawwior.toth.data.DataElement;
 import me.wawwior.toth.data.DataList;
 import me.wawwior.toth.data.DataMap;
+import me.wawwior.toth.data.KeyIndex;
 import me.wawwior.toth.data.primitives.DataBoolean;
 import me.wawwior.toth.data.primitives.DataNull;
 import me.wawwior.toth.data.primitives.DataNumber;
 import me.wawwior.toth.data.primitives.DataString;
+import me.wawwior.toth.util.CatchingFunction;
 import me.wawwior.toth.util.function.*;
 import me.wawwior.toth.util.tuple.Tuple1;
 import me.wawwior.toth.util.tuple.Tuple3;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
-public abstract class Codec<T> implements Encoder<T>, Decoder<T> {
+public abstract class Codec<T> implements Encoder<T>, Decoder<T>, StreamEncoder<T>, StreamDecoder<T> {
 
     public static Codec<Boolean> BOOLEAN_CODEC = Codec.of(
             bool -> Result.result(new DataBoolean(bool)),
-            data -> typedResult(DataElement.Type.BOOLEAN_TYPE, data).mapValue(DataBoolean::value)
+            data -> typedResult(DataElement.Type.BOOLEAN_TYPE, data).mapValue(DataBoolean::value),
+            (bool, writer) -> {
+                writer.value((boolean) bool);
+                return Optional.empty();
+            },
+            reader -> typedRead(DataElement.Type.BOOLEAN_TYPE, reader, DataReader::readBoolean)
     );
 
-    public static Codec<Integer> INT_CODEC = Codec.of(
-            number -> Result.result(new DataNumber(number)),
-            data -> typedResult(DataElement.Type.NUMBER_TYPE, data).flatMapValue(d -> {
-               try {
-                   return Result.result(d.asInt());
-               } catch (NumberFormatException e) {
-                   return Result.error(e.getMessage());
-               }
-            })
-    );
+    public static IntCodec INT_CODEC = new IntCodec();
 
-    public static Codec<Long> LONG_CODEC = Codec.of(
-            number -> Result.result(new DataNumber(number)),
-            data -> typedResult(DataElement.Type.NUMBER_TYPE, data).flatMapValue(d -> {
-                try {
-                    return Result.result(d.asLong());
-                } catch (NumberFormatException e) {
-                    return Result.error(e.getMessage());
-                }
-            })
-    );
+    public static LongCodec LONG_CODEC = new LongCodec();
 
     public static Codec<Float> FLOAT_CODEC = Codec.of(
             number -> Result.result(new DataNumber(number)),
-            data -> typedResult(DataElement.Type.NUMBER_TYPE, data).flatMapValue(d -> {
-                try {
-                    return Result.result(d.asFloat());
-                } catch (NumberFormatException e) {
-                    return Result.error(e.getMessage());
-                }
-            })
+            data -> typedResult(DataElement.Type.NUMBER_TYPE, data).mapValue(DataNumber::asFloat),
+            (number, writer) -> {
+                writer.value((float) number);
+                return Optional.empty();
+            },
+            reader -> typedRead(DataElement.Type.NUMBER_TYPE, reader, DataReader::readFloat)
     );
 
-    public static Codec<Double> DOUBLE_CODEC = Codec.of(
-            number -> Result.result(new DataNumber(number)),
-            data -> typedResult(DataElement.Type.NUMBER_TYPE, data).flatMapValue(d -> {
-                try {
-                    return Result.result(d.asDouble());
-                } catch (NumberFormatException e) {
-                    return Result.error(e.getMessage());
-                }
-            })
-    );
+    public static DoubleCodec DOUBLE_CODEC = new DoubleCodec();
 
     public static Codec<String> STRING_CODEC = Codec.of(
             string -> Result.result(new DataString(string)),
-            data -> typedResult(DataElement.Type.STRING_TYPE, data).mapValue(DataString::value)
+            data -> typedResult(DataElement.Type.STRING_TYPE, data).mapValue(DataString::value),
+            (string, writer) -> {
+                writer.value(string);
+                return Optional.empty();
+            },
+            reader -> typedRead(DataElement.Type.STRING_TYPE, reader, DataReader::readString)
     );
 
     public static <T> Codec<T> of(Encoder<T> encoder, Decoder<T> decoder) {
@@ -87,6 +75,71 @@ public abstract class Codec<T> implements Encoder<T>, Decoder<T> {
         };
     }
 
+    /**
+     * Creates a {@link Codec} that also writes and reads directly, without building a {@link DataElement} tree.
+     */
+    public static <T> Codec<T> of(
+            Encoder<T> encoder,
+            Decoder<T> decoder,
+            StreamEncoder<T> streamEncoder,
+            StreamDecoder<T> streamDecoder
+    ) {
+        return new Codec<>() {
+
+            @Override
+            public Result<DataElement, String> encode(T t) {
+                return encoder.encode(t);
+            }
+
+            @Override
+            public Result<T, String> decode(DataElement element) {
+                return decoder.decode(element);
+            }
+
+            @Override
+            public Optional<String> write(T t, DataWriter writer) throws IOException {
+                return streamEncoder.write(t, writer);
+            }
+
+            @Override
+            public Result<T, String> read(DataReader reader) throws IOException {
+                return streamDecoder.read(reader);
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * By default, the value is encoded into a {@link DataElement} first.
+     *
+     * @param t      {@inheritDoc}
+     * @param writer {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public Optional<String> write(T t, DataWriter writer) throws IOException {
+        Result<DataElement, String> result = encode(t);
+        if (!result.isPresent()) return Optional.of(result.error());
+        result.value().write(writer);
+        return Optional.empty();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * By default, the value is read into a {@link DataElement} first.
+     *
+     * @param reader {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public Result<T, String> read(DataReader reader) throws IOException {
+        return decode(DataElement.read(reader));
+    }
+
     public final Codec<List<T>> listOf() {
         return Codec.of(
                 list -> {
@@ -106,30 +159,105 @@ public abstract class Codec<T> implements Encoder<T>, Decoder<T> {
                         list.add(result.value());
                     }
                     return Result.result(list);
-                })
+                }),
+                (list, writer) -> {
+                    writer.openList();
+                    for (T t : list) {
+                        Optional<String> error = write(t, writer);
+                        if (error.isPresent()) return error;
+                    }
+                    writer.closeList();
+                    return Optional.empty();
+                },
+                reader -> {
+                    DataElement.Type<?> type = reader.nextType();
+                    if (type != DataElement.Type.LIST_TYPE) return typeError(DataElement.Type.LIST_TYPE, type);
+                    List<T> list = new ArrayList<>();
+                    reader.enterList();
+                    while (reader.hasNext()) {
+                        Result<T, String> result = read(reader);
+                        if (!result.isPresent()) return result.castError();
+                        list.add(result.value());
+                    }
+                    reader.leaveList();
+                    return Result.result(list);
+                }
         );
     }
 
     public final FieldCodec<T> fieldOf(String key) {
-        return FieldCodec.of(
-                (t, map) -> {
-                    Result<DataElement, String> result = encode(t);
-                    if (!result.isPresent()) return Optional.of(result.error());
-                    map.put(key, result.value());
-                    return Optional.empty();
-                },
-                (element) -> typedResult(DataElement.Type.MAP_TYPE, element)
+        return new FieldCodec<>() {
+            @Override
+            public Optional<String> encode(T t, DataMap map) {
+                Result<DataElement, String> result = Codec.this.encode(t);
+                if (!result.isPresent()) return Optional.of(result.error());
+                map.put(key, result.value());
+                return Optional.empty();
+            }
+
+            @Override
+            public Result<T, String> decode(DataElement element) {
+                return typedResult(DataElement.Type.MAP_TYPE, element)
                         .flatMapValue(map -> map.get(key)
-                                .map(this::decode)
-                                .orElseGet(() -> Result.error("DataMap does not have key \"" + key + "\"!")))
-        );
+                                .map(Codec.this::decode)
+                                .orElseGet(() -> missingKey(key)));
+            }
+
+            @Override
+            public Optional<String> write(T t, DataWriter writer) throws IOException {
+                writer.key(key);
+                return Codec.this.write(t, writer);
+            }
+
+            @Override
+            public String key() {
+                return key;
+            }
+
+            @Override
+            public Result<T, String> decodeValue(DataElement value) {
+                return Codec.this.decode(value);
+            }
+
+            @Override
+            public Result<T, String> readValue(DataReader reader) throws IOException {
+                return Codec.this.read(reader);
+            }
+        };
     }
 
     private static <T extends DataElement> Result<T, String> typedResult(DataElement.Type<T> expectedType, DataElement element) {
-        if (expectedType != element.type()) return Result.error("Expected \"" + expectedType + "\", got \"" + element.type() + "\"!");
+        if (expectedType != element.type()) return typeError(expectedType, element.type());
         return Result.result(element.as(expectedType));
     }
 
+    private static <T> Result<T, String> typedRead(
+            DataElement.Type<?> expectedType,
+            DataReader reader,
+            CatchingFunction<DataReader, T, IOException> read
+    ) throws IOException {
+        DataElement.Type<?> type = reader.nextType();
+        if (expectedType != type) return typeError(expectedType, type);
+        try {
+            return Result.result(read.apply(reader));
+        } catch (NumberFormatException e) {
+            return Result.error(e.getMessage());
+        }
+    }
+
+    static <T> Result<T, String> numberError(Object number, DataNumber.Fit fit, String target) {
+        if (fit == DataNumber.Fit.FRACTIONAL) return Result.lazyError(() -> number + " is not an integer!");
+        return Result.lazyError(() -> number + " is out of range for " + target + "!");
+    }
+
+    static <T> Result<T, String> typeError(DataElement.Type<?> expectedType, DataElement.Type<?> type) {
+        return Result.lazyError(() -> "Expected \"" + expectedType + "\", got \"" + type + "\"!");
+    }
+
+    private static <T> Result<T, String> missingKey(String key) {
+        return Result.lazyError(() -> "DataMap does not have key \"" + key + "\"!");
+    }
+
     public final Codec<T> nullable() {
         return Codec.of(
                 t -> {
@@ -139,6 +267,18 @@ public abstract class Codec<T> implements Encoder<T>, Decoder<T> {
                 element -> {
                     if (element.type() == DataElement.Type.NULL_TYPE) return Result.result(null);
                     return this.decode(element);
+                },
+                (t, writer) -> {
+                    if (t == null) {
+                        writer.nullValue();
+                        return Optional.empty();
+                    }
+                    return this.write(t, writer);
+                },
+                reader -> {
+                    if (reader.nextType() != DataElement.Type.NULL_TYPE) return this.read(reader);
+                    reader.expectNull();
+                    return Result.result(null);
                 }
         );
     }
@@ -149,15 +289,12 @@ public abstract class Codec<T> implements Encoder<T>, Decoder<T> {
     ) {
         return new CodecGroup<>() {
             @Override
+            @SuppressWarnings("unchecked")
             public <B extends Boxable<BoxedFunction<Tuple1<P1>, T, B>>> Codec<T> build(B builder) {
-                return of(
-                        t -> {
-                            DataMap map = new DataMap();
-                            Optional<String> optional = codec.encode(t, map);
-                            return optional.<Result<DataElement, String>>map(Result::error).orElseGet(() -> Result.result(map));
-                        },
-                        element -> codec.decode(element).mapValue(p1 -> builder.box().apply(Tuple1.of(p1)))
-                );
+                FieldsDecoder<T> fromFields = fields -> codec.decodeValue(fields[0])
+                        .mapValue(p1 -> builder.box().apply(Tuple1.of(p1)));
+                Function<Object[], T> fromValues = values -> builder.box().apply(Tuple1.of((P1) values[0]));
+                return groupOf(fromFields, fromValues, codec);
             }
         };
     }
@@ -170,32 +307,875 @@ public abstract class Codec<T> implements Encoder<T>, Decoder<T> {
     ) {
         return new CodecGroup<T, Tuple3<P1, P2, P3>>() {
             @Override
+            @SuppressWarnings("unchecked")
             public <B extends Boxable<BoxedFunction<Tuple3<P1, P2, P3>, T, B>>> Codec<T> build(B builder) {
-                return of(
-                        t -> {
-                            DataMap map = new DataMap();
-                            Optional<String> optional1 = codec1.encode(t, map);
-                            if (optional1.isPresent()) return Result.error(optional1.get());
-                            Optional<String> optional2 = codec2.encode(t, map);
-                            if (optional2.isPresent()) return Result.error(optional2.get());
-                            Optional<String> optional3 = codec3.encode(t, map);
-                            if (optional3.isPresent()) return Result.error(optional3.get());
-                            return Result.result(map);
-                        },
-                        element -> {
-                            Result<P1, String> result1 = codec1.decode(element);
-                            if (!result1.isPresent()) return result1.castError();
-                            Result<P2, String> result2 = codec2.decode(element);
-                            if (!result2.isPresent()) return result2.castError();
-                            Result<P3, String> result3 = codec3.decode(element);
-                            if (!result3.isPresent()) return result3.castError();
-                            return Result.result(builder.box().apply(Tuple3.of(result1.value(), result2.value(), result3.value())));
-                        }
-                );
+                FieldsDecoder<T> fromFields = fields -> {
+                    Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+                    if (!result1.isPresent()) return result1.castError();
+                    Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+                    if (!result2.isPresent()) return result2.castError();
+                    Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+                    if (!result3.isPresent()) return result3.castError();
+                    return Result.result(builder.box().apply(Tuple3.of(result1.value(), result2.value(), result3.value())));
+                };
+                Function<Object[], T> fromValues = values -> builder.box().apply(Tuple3.of((P1) values[0], (P2) values[1], (P3) values[2]));
+                return groupOf(fromFields, fromValues, codec1, codec2, codec3);
             }
         };
     }
 
+    /*
+     * Groups of up to 16 fields that call their constructor directly, without a tuple or boxed function. A map is
+     * decoded into typed locals that are passed straight to the constructor.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, P1> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            Function<P1, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            return Result.result(constructor.apply(result1.value()));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply((P1) values[0]);
+        return groupOf(fromFields, fromValues, codec1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BiFunction<P1, P2, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            return Result.result(constructor.apply(result1.value(), result2.value()));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply((P1) values[0], (P2) values[1]);
+        return groupOf(fromFields, fromValues, codec1, codec2);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            Function3<P1, P2, P3, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            return Result.result(constructor.apply(result1.value(), result2.value(), result3.value()));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply((P1) values[0], (P2) values[1], (P3) values[2]);
+        return groupOf(fromFields, fromValues, codec1, codec2, codec3);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3, P4> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            BoundFieldCodec<T, P4> codec4,
+            Function4<P1, P2, P3, P4, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            Result<P4, String> result4 = codec4.decodeValue(fields[3]);
+            if (!result4.isPresent()) return result4.castError();
+            return Result.result(constructor.apply(result1.value(), result2.value(), result3.value(), result4.value()));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply(
+                (P1) values[0], (P2) values[1], (P3) values[2], (P4) values[3]
+        );
+        return groupOf(fromFields, fromValues, codec1, codec2, codec3, codec4);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3, P4, P5> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            BoundFieldCodec<T, P4> codec4,
+            BoundFieldCodec<T, P5> codec5,
+            Function5<P1, P2, P3, P4, P5, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            Result<P4, String> result4 = codec4.decodeValue(fields[3]);
+            if (!result4.isPresent()) return result4.castError();
+            Result<P5, String> result5 = codec5.decodeValue(fields[4]);
+            if (!result5.isPresent()) return result5.castError();
+            return Result.result(constructor.apply(
+                    result1.value(), result2.value(), result3.value(), result4.value(), result5.value()
+            ));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply(
+                (P1) values[0], (P2) values[1], (P3) values[2], (P4) values[3], (P5) values[4]
+        );
+        return groupOf(fromFields, fromValues, codec1, codec2, codec3, codec4, codec5);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3, P4, P5, P6> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            BoundFieldCodec<T, P4> codec4,
+            BoundFieldCodec<T, P5> codec5,
+            BoundFieldCodec<T, P6> codec6,
+            Function6<P1, P2, P3, P4, P5, P6, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            Result<P4, String> result4 = codec4.decodeValue(fields[3]);
+            if (!result4.isPresent()) return result4.castError();
+            Result<P5, String> result5 = codec5.decodeValue(fields[4]);
+            if (!result5.isPresent()) return result5.castError();
+            Result<P6, String> result6 = codec6.decodeValue(fields[5]);
+            if (!result6.isPresent()) return result6.castError();
+            return Result.result(constructor.apply(
+                    result1.value(), result2.value(), result3.value(), result4.value(), result5.value(),
+                    result6.value()
+            ));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply(
+                (P1) values[0], (P2) values[1], (P3) values[2], (P4) values[3], (P5) values[4], (P6) values[5]
+        );
+        return groupOf(fromFields, fromValues, codec1, codec2, codec3, codec4, codec5, codec6);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3, P4, P5, P6, P7> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            BoundFieldCodec<T, P4> codec4,
+            BoundFieldCodec<T, P5> codec5,
+            BoundFieldCodec<T, P6> codec6,
+            BoundFieldCodec<T, P7> codec7,
+            Function7<P1, P2, P3, P4, P5, P6, P7, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            Result<P4, String> result4 = codec4.decodeValue(fields[3]);
+            if (!result4.isPresent()) return result4.castError();
+            Result<P5, String> result5 = codec5.decodeValue(fields[4]);
+            if (!result5.isPresent()) return result5.castError();
+            Result<P6, String> result6 = codec6.decodeValue(fields[5]);
+            if (!result6.isPresent()) return result6.castError();
+            Result<P7, String> result7 = codec7.decodeValue(fields[6]);
+            if (!result7.isPresent()) return result7.castError();
+            return Result.result(constructor.apply(
+                    result1.value(), result2.value(), result3.value(), result4.value(), result5.value(),
+                    result6.value(), result7.value()
+            ));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply(
+                (P1) values[0], (P2) values[1], (P3) values[2], (P4) values[3], (P5) values[4], (P6) values[5],
+                (P7) values[6]
+        );
+        return groupOf(fromFields, fromValues, codec1, codec2, codec3, codec4, codec5, codec6, codec7);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3, P4, P5, P6, P7, P8> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            BoundFieldCodec<T, P4> codec4,
+            BoundFieldCodec<T, P5> codec5,
+            BoundFieldCodec<T, P6> codec6,
+            BoundFieldCodec<T, P7> codec7,
+            BoundFieldCodec<T, P8> codec8,
+            Function8<P1, P2, P3, P4, P5, P6, P7, P8, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            Result<P4, String> result4 = codec4.decodeValue(fields[3]);
+            if (!result4.isPresent()) return result4.castError();
+            Result<P5, String> result5 = codec5.decodeValue(fields[4]);
+            if (!result5.isPresent()) return result5.castError();
+            Result<P6, String> result6 = codec6.decodeValue(fields[5]);
+            if (!result6.isPresent()) return result6.castError();
+            Result<P7, String> result7 = codec7.decodeValue(fields[6]);
+            if (!result7.isPresent()) return result7.castError();
+            Result<P8, String> result8 = codec8.decodeValue(fields[7]);
+            if (!result8.isPresent()) return result8.castError();
+            return Result.result(constructor.apply(
+                    result1.value(), result2.value(), result3.value(), result4.value(), result5.value(),
+                    result6.value(), result7.value(), result8.value()
+            ));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply(
+                (P1) values[0], (P2) values[1], (P3) values[2], (P4) values[3], (P5) values[4], (P6) values[5],
+                (P7) values[6], (P8) values[7]
+        );
+        return groupOf(fromFields, fromValues, codec1, codec2, codec3, codec4, codec5, codec6, codec7, codec8);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3, P4, P5, P6, P7, P8, P9> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            BoundFieldCodec<T, P4> codec4,
+            BoundFieldCodec<T, P5> codec5,
+            BoundFieldCodec<T, P6> codec6,
+            BoundFieldCodec<T, P7> codec7,
+            BoundFieldCodec<T, P8> codec8,
+            BoundFieldCodec<T, P9> codec9,
+            Function9<P1, P2, P3, P4, P5, P6, P7, P8, P9, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            Result<P4, String> result4 = codec4.decodeValue(fields[3]);
+            if (!result4.isPresent()) return result4.castError();
+            Result<P5, String> result5 = codec5.decodeValue(fields[4]);
+            if (!result5.isPresent()) return result5.castError();
+            Result<P6, String> result6 = codec6.decodeValue(fields[5]);
+            if (!result6.isPresent()) return result6.castError();
+            Result<P7, String> result7 = codec7.decodeValue(fields[6]);
+            if (!result7.isPresent()) return result7.castError();
+            Result<P8, String> result8 = codec8.decodeValue(fields[7]);
+            if (!result8.isPresent()) return result8.castError();
+            Result<P9, String> result9 = codec9.decodeValue(fields[8]);
+            if (!result9.isPresent()) return result9.castError();
+            return Result.result(constructor.apply(
+                    result1.value(), result2.value(), result3.value(), result4.value(), result5.value(),
+                    result6.value(), result7.value(), result8.value(), result9.value()
+            ));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply(
+                (P1) values[0], (P2) values[1], (P3) values[2], (P4) values[3], (P5) values[4], (P6) values[5],
+                (P7) values[6], (P8) values[7], (P9) values[8]
+        );
+        return groupOf(fromFields, fromValues, codec1, codec2, codec3, codec4, codec5, codec6, codec7, codec8, codec9);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            BoundFieldCodec<T, P4> codec4,
+            BoundFieldCodec<T, P5> codec5,
+            BoundFieldCodec<T, P6> codec6,
+            BoundFieldCodec<T, P7> codec7,
+            BoundFieldCodec<T, P8> codec8,
+            BoundFieldCodec<T, P9> codec9,
+            BoundFieldCodec<T, P10> codec10,
+            Function10<P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            Result<P4, String> result4 = codec4.decodeValue(fields[3]);
+            if (!result4.isPresent()) return result4.castError();
+            Result<P5, String> result5 = codec5.decodeValue(fields[4]);
+            if (!result5.isPresent()) return result5.castError();
+            Result<P6, String> result6 = codec6.decodeValue(fields[5]);
+            if (!result6.isPresent()) return result6.castError();
+            Result<P7, String> result7 = codec7.decodeValue(fields[6]);
+            if (!result7.isPresent()) return result7.castError();
+            Result<P8, String> result8 = codec8.decodeValue(fields[7]);
+            if (!result8.isPresent()) return result8.castError();
+            Result<P9, String> result9 = codec9.decodeValue(fields[8]);
+            if (!result9.isPresent()) return result9.castError();
+            Result<P10, String> result10 = codec10.decodeValue(fields[9]);
+            if (!result10.isPresent()) return result10.castError();
+            return Result.result(constructor.apply(
+                    result1.value(), result2.value(), result3.value(), result4.value(), result5.value(),
+                    result6.value(), result7.value(), result8.value(), result9.value(), result10.value()
+            ));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply(
+                (P1) values[0], (P2) values[1], (P3) values[2], (P4) values[3], (P5) values[4], (P6) values[5],
+                (P7) values[6], (P8) values[7], (P9) values[8], (P10) values[9]
+        );
+        return groupOf(
+                fromFields, fromValues, codec1, codec2, codec3, codec4, codec5, codec6, codec7, codec8, codec9, codec10
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            BoundFieldCodec<T, P4> codec4,
+            BoundFieldCodec<T, P5> codec5,
+            BoundFieldCodec<T, P6> codec6,
+            BoundFieldCodec<T, P7> codec7,
+            BoundFieldCodec<T, P8> codec8,
+            BoundFieldCodec<T, P9> codec9,
+            BoundFieldCodec<T, P10> codec10,
+            BoundFieldCodec<T, P11> codec11,
+            Function11<P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            Result<P4, String> result4 = codec4.decodeValue(fields[3]);
+            if (!result4.isPresent()) return result4.castError();
+            Result<P5, String> result5 = codec5.decodeValue(fields[4]);
+            if (!result5.isPresent()) return result5.castError();
+            Result<P6, String> result6 = codec6.decodeValue(fields[5]);
+            if (!result6.isPresent()) return result6.castError();
+            Result<P7, String> result7 = codec7.decodeValue(fields[6]);
+            if (!result7.isPresent()) return result7.castError();
+            Result<P8, String> result8 = codec8.decodeValue(fields[7]);
+            if (!result8.isPresent()) return result8.castError();
+            Result<P9, String> result9 = codec9.decodeValue(fields[8]);
+            if (!result9.isPresent()) return result9.castError();
+            Result<P10, String> result10 = codec10.decodeValue(fields[9]);
+            if (!result10.isPresent()) return result10.castError();
+            Result<P11, String> result11 = codec11.decodeValue(fields[10]);
+            if (!result11.isPresent()) return result11.castError();
+            return Result.result(constructor.apply(
+                    result1.value(), result2.value(), result3.value(), result4.value(), result5.value(),
+                    result6.value(), result7.value(), result8.value(), result9.value(), result10.value(),
+                    result11.value()
+            ));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply(
+                (P1) values[0], (P2) values[1], (P3) values[2], (P4) values[3], (P5) values[4], (P6) values[5],
+                (P7) values[6], (P8) values[7], (P9) values[8], (P10) values[9], (P11) values[10]
+        );
+        return groupOf(
+                fromFields, fromValues, codec1, codec2, codec3, codec4, codec5, codec6, codec7, codec8, codec9, codec10,
+                codec11
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            BoundFieldCodec<T, P4> codec4,
+            BoundFieldCodec<T, P5> codec5,
+            BoundFieldCodec<T, P6> codec6,
+            BoundFieldCodec<T, P7> codec7,
+            BoundFieldCodec<T, P8> codec8,
+            BoundFieldCodec<T, P9> codec9,
+            BoundFieldCodec<T, P10> codec10,
+            BoundFieldCodec<T, P11> codec11,
+            BoundFieldCodec<T, P12> codec12,
+            Function12<P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            Result<P4, String> result4 = codec4.decodeValue(fields[3]);
+            if (!result4.isPresent()) return result4.castError();
+            Result<P5, String> result5 = codec5.decodeValue(fields[4]);
+            if (!result5.isPresent()) return result5.castError();
+            Result<P6, String> result6 = codec6.decodeValue(fields[5]);
+            if (!result6.isPresent()) return result6.castError();
+            Result<P7, String> result7 = codec7.decodeValue(fields[6]);
+            if (!result7.isPresent()) return result7.castError();
+            Result<P8, String> result8 = codec8.decodeValue(fields[7]);
+            if (!result8.isPresent()) return result8.castError();
+            Result<P9, String> result9 = codec9.decodeValue(fields[8]);
+            if (!result9.isPresent()) return result9.castError();
+            Result<P10, String> result10 = codec10.decodeValue(fields[9]);
+            if (!result10.isPresent()) return result10.castError();
+            Result<P11, String> result11 = codec11.decodeValue(fields[10]);
+            if (!result11.isPresent()) return result11.castError();
+            Result<P12, String> result12 = codec12.decodeValue(fields[11]);
+            if (!result12.isPresent()) return result12.castError();
+            return Result.result(constructor.apply(
+                    result1.value(), result2.value(), result3.value(), result4.value(), result5.value(),
+                    result6.value(), result7.value(), result8.value(), result9.value(), result10.value(),
+                    result11.value(), result12.value()
+            ));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply(
+                (P1) values[0], (P2) values[1], (P3) values[2], (P4) values[3], (P5) values[4], (P6) values[5],
+                (P7) values[6], (P8) values[7], (P9) values[8], (P10) values[9], (P11) values[10], (P12) values[11]
+        );
+        return groupOf(
+                fromFields, fromValues, codec1, codec2, codec3, codec4, codec5, codec6, codec7, codec8, codec9, codec10,
+                codec11, codec12
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            BoundFieldCodec<T, P4> codec4,
+            BoundFieldCodec<T, P5> codec5,
+            BoundFieldCodec<T, P6> codec6,
+            BoundFieldCodec<T, P7> codec7,
+            BoundFieldCodec<T, P8> codec8,
+            BoundFieldCodec<T, P9> codec9,
+            BoundFieldCodec<T, P10> codec10,
+            BoundFieldCodec<T, P11> codec11,
+            BoundFieldCodec<T, P12> codec12,
+            BoundFieldCodec<T, P13> codec13,
+            Function13<P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            Result<P4, String> result4 = codec4.decodeValue(fields[3]);
+            if (!result4.isPresent()) return result4.castError();
+            Result<P5, String> result5 = codec5.decodeValue(fields[4]);
+            if (!result5.isPresent()) return result5.castError();
+            Result<P6, String> result6 = codec6.decodeValue(fields[5]);
+            if (!result6.isPresent()) return result6.castError();
+            Result<P7, String> result7 = codec7.decodeValue(fields[6]);
+            if (!result7.isPresent()) return result7.castError();
+            Result<P8, String> result8 = codec8.decodeValue(fields[7]);
+            if (!result8.isPresent()) return result8.castError();
+            Result<P9, String> result9 = codec9.decodeValue(fields[8]);
+            if (!result9.isPresent()) return result9.castError();
+            Result<P10, String> result10 = codec10.decodeValue(fields[9]);
+            if (!result10.isPresent()) return result10.castError();
+            Result<P11, String> result11 = codec11.decodeValue(fields[10]);
+            if (!result11.isPresent()) return result11.castError();
+            Result<P12, String> result12 = codec12.decodeValue(fields[11]);
+            if (!result12.isPresent()) return result12.castError();
+            Result<P13, String> result13 = codec13.decodeValue(fields[12]);
+            if (!result13.isPresent()) return result13.castError();
+            return Result.result(constructor.apply(
+                    result1.value(), result2.value(), result3.value(), result4.value(), result5.value(),
+                    result6.value(), result7.value(), result8.value(), result9.value(), result10.value(),
+                    result11.value(), result12.value(), result13.value()
+            ));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply(
+                (P1) values[0], (P2) values[1], (P3) values[2], (P4) values[3], (P5) values[4], (P6) values[5],
+                (P7) values[6], (P8) values[7], (P9) values[8], (P10) values[9], (P11) values[10], (P12) values[11],
+                (P13) values[12]
+        );
+        return groupOf(
+                fromFields, fromValues, codec1, codec2, codec3, codec4, codec5, codec6, codec7, codec8, codec9, codec10,
+                codec11, codec12, codec13
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            BoundFieldCodec<T, P4> codec4,
+            BoundFieldCodec<T, P5> codec5,
+            BoundFieldCodec<T, P6> codec6,
+            BoundFieldCodec<T, P7> codec7,
+            BoundFieldCodec<T, P8> codec8,
+            BoundFieldCodec<T, P9> codec9,
+            BoundFieldCodec<T, P10> codec10,
+            BoundFieldCodec<T, P11> codec11,
+            BoundFieldCodec<T, P12> codec12,
+            BoundFieldCodec<T, P13> codec13,
+            BoundFieldCodec<T, P14> codec14,
+            Function14<P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            Result<P4, String> result4 = codec4.decodeValue(fields[3]);
+            if (!result4.isPresent()) return result4.castError();
+            Result<P5, String> result5 = codec5.decodeValue(fields[4]);
+            if (!result5.isPresent()) return result5.castError();
+            Result<P6, String> result6 = codec6.decodeValue(fields[5]);
+            if (!result6.isPresent()) return result6.castError();
+            Result<P7, String> result7 = codec7.decodeValue(fields[6]);
+            if (!result7.isPresent()) return result7.castError();
+            Result<P8, String> result8 = codec8.decodeValue(fields[7]);
+            if (!result8.isPresent()) return result8.castError();
+            Result<P9, String> result9 = codec9.decodeValue(fields[8]);
+            if (!result9.isPresent()) return result9.castError();
+            Result<P10, String> result10 = codec10.decodeValue(fields[9]);
+            if (!result10.isPresent()) return result10.castError();
+            Result<P11, String> result11 = codec11.decodeValue(fields[10]);
+            if (!result11.isPresent()) return result11.castError();
+            Result<P12, String> result12 = codec12.decodeValue(fields[11]);
+            if (!result12.isPresent()) return result12.castError();
+            Result<P13, String> result13 = codec13.decodeValue(fields[12]);
+            if (!result13.isPresent()) return result13.castError();
+            Result<P14, String> result14 = codec14.decodeValue(fields[13]);
+            if (!result14.isPresent()) return result14.castError();
+            return Result.result(constructor.apply(
+                    result1.value(), result2.value(), result3.value(), result4.value(), result5.value(),
+                    result6.value(), result7.value(), result8.value(), result9.value(), result10.value(),
+                    result11.value(), result12.value(), result13.value(), result14.value()
+            ));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply(
+                (P1) values[0], (P2) values[1], (P3) values[2], (P4) values[3], (P5) values[4], (P6) values[5],
+                (P7) values[6], (P8) values[7], (P9) values[8], (P10) values[9], (P11) values[10], (P12) values[11],
+                (P13) values[12], (P14) values[13]
+        );
+        return groupOf(
+                fromFields, fromValues, codec1, codec2, codec3, codec4, codec5, codec6, codec7, codec8, codec9, codec10,
+                codec11, codec12, codec13, codec14
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            BoundFieldCodec<T, P4> codec4,
+            BoundFieldCodec<T, P5> codec5,
+            BoundFieldCodec<T, P6> codec6,
+            BoundFieldCodec<T, P7> codec7,
+            BoundFieldCodec<T, P8> codec8,
+            BoundFieldCodec<T, P9> codec9,
+            BoundFieldCodec<T, P10> codec10,
+            BoundFieldCodec<T, P11> codec11,
+            BoundFieldCodec<T, P12> codec12,
+            BoundFieldCodec<T, P13> codec13,
+            BoundFieldCodec<T, P14> codec14,
+            BoundFieldCodec<T, P15> codec15,
+            Function15<P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            Result<P4, String> result4 = codec4.decodeValue(fields[3]);
+            if (!result4.isPresent()) return result4.castError();
+            Result<P5, String> result5 = codec5.decodeValue(fields[4]);
+            if (!result5.isPresent()) return result5.castError();
+            Result<P6, String> result6 = codec6.decodeValue(fields[5]);
+            if (!result6.isPresent()) return result6.castError();
+            Result<P7, String> result7 = codec7.decodeValue(fields[6]);
+            if (!result7.isPresent()) return result7.castError();
+            Result<P8, String> result8 = codec8.decodeValue(fields[7]);
+            if (!result8.isPresent()) return result8.castError();
+            Result<P9, String> result9 = codec9.decodeValue(fields[8]);
+            if (!result9.isPresent()) return result9.castError();
+            Result<P10, String> result10 = codec10.decodeValue(fields[9]);
+            if (!result10.isPresent()) return result10.castError();
+            Result<P11, String> result11 = codec11.decodeValue(fields[10]);
+            if (!result11.isPresent()) return result11.castError();
+            Result<P12, String> result12 = codec12.decodeValue(fields[11]);
+            if (!result12.isPresent()) return result12.castError();
+            Result<P13, String> result13 = codec13.decodeValue(fields[12]);
+            if (!result13.isPresent()) return result13.castError();
+            Result<P14, String> result14 = codec14.decodeValue(fields[13]);
+            if (!result14.isPresent()) return result14.castError();
+            Result<P15, String> result15 = codec15.decodeValue(fields[14]);
+            if (!result15.isPresent()) return result15.castError();
+            return Result.result(constructor.apply(
+                    result1.value(), result2.value(), result3.value(), result4.value(), result5.value(),
+                    result6.value(), result7.value(), result8.value(), result9.value(), result10.value(),
+                    result11.value(), result12.value(), result13.value(), result14.value(), result15.value()
+            ));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply(
+                (P1) values[0], (P2) values[1], (P3) values[2], (P4) values[3], (P5) values[4], (P6) values[5],
+                (P7) values[6], (P8) values[7], (P9) values[8], (P10) values[9], (P11) values[10], (P12) values[11],
+                (P13) values[12], (P14) values[13], (P15) values[14]
+        );
+        return groupOf(
+                fromFields, fromValues, codec1, codec2, codec3, codec4, codec5, codec6, codec7, codec8, codec9, codec10,
+                codec11, codec12, codec13, codec14, codec15
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T, P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16> Codec<T> group(
+            Class<T> ignoredMu,
+            BoundFieldCodec<T, P1> codec1,
+            BoundFieldCodec<T, P2> codec2,
+            BoundFieldCodec<T, P3> codec3,
+            BoundFieldCodec<T, P4> codec4,
+            BoundFieldCodec<T, P5> codec5,
+            BoundFieldCodec<T, P6> codec6,
+            BoundFieldCodec<T, P7> codec7,
+            BoundFieldCodec<T, P8> codec8,
+            BoundFieldCodec<T, P9> codec9,
+            BoundFieldCodec<T, P10> codec10,
+            BoundFieldCodec<T, P11> codec11,
+            BoundFieldCodec<T, P12> codec12,
+            BoundFieldCodec<T, P13> codec13,
+            BoundFieldCodec<T, P14> codec14,
+            BoundFieldCodec<T, P15> codec15,
+            BoundFieldCodec<T, P16> codec16,
+            Function16<P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, P12, P13, P14, P15, P16, T> constructor
+    ) {
+        FieldsDecoder<T> fromFields = fields -> {
+            Result<P1, String> result1 = codec1.decodeValue(fields[0]);
+            if (!result1.isPresent()) return result1.castError();
+            Result<P2, String> result2 = codec2.decodeValue(fields[1]);
+            if (!result2.isPresent()) return result2.castError();
+            Result<P3, String> result3 = codec3.decodeValue(fields[2]);
+            if (!result3.isPresent()) return result3.castError();
+            Result<P4, String> result4 = codec4.decodeValue(fields[3]);
+            if (!result4.isPresent()) return result4.castError();
+            Result<P5, String> result5 = codec5.decodeValue(fields[4]);
+            if (!result5.isPresent()) return result5.castError();
+            Result<P6, String> result6 = codec6.decodeValue(fields[5]);
+            if (!result6.isPresent()) return result6.castError();
+            Result<P7, String> result7 = codec7.decodeValue(fields[6]);
+            if (!result7.isPresent()) return result7.castError();
+            Result<P8, String> result8 = codec8.decodeValue(fields[7]);
+            if (!result8.isPresent()) return result8.castError();
+            Result<P9, String> result9 = codec9.decodeValue(fields[8]);
+            if (!result9.isPresent()) return result9.castError();
+            Result<P10, String> result10 = codec10.decodeValue(fields[9]);
+            if (!result10.isPresent()) return result10.castError();
+            Result<P11, String> result11 = codec11.decodeValue(fields[10]);
+            if (!result11.isPresent()) return result11.castError();
+            Result<P12, String> result12 = codec12.decodeValue(fields[11]);
+            if (!result12.isPresent()) return result12.castError();
+            Result<P13, String> result13 = codec13.decodeValue(fields[12]);
+            if (!result13.isPresent()) return result13.castError();
+            Result<P14, String> result14 = codec14.decodeValue(fields[13]);
+            if (!result14.isPresent()) return result14.castError();
+            Result<P15, String> result15 = codec15.decodeValue(fields[14]);
+            if (!result15.isPresent()) return result15.castError();
+            Result<P16, String> result16 = codec16.decodeValue(fields[15]);
+            if (!result16.isPresent()) return result16.castError();
+            return Result.result(constructor.apply(
+                    result1.value(), result2.value(), result3.value(), result4.value(), result5.value(),
+                    result6.value(), result7.value(), result8.value(), result9.value(), result10.value(),
+                    result11.value(), result12.value(), result13.value(), result14.value(), result15.value(),
+                    result16.value()
+            ));
+        };
+        Function<Object[], T> fromValues = values -> constructor.apply(
+                (P1) values[0], (P2) values[1], (P3) values[2], (P4) values[3], (P5) values[4], (P6) values[5],
+                (P7) values[6], (P8) values[7], (P9) values[8], (P10) values[9], (P11) values[10], (P12) values[11],
+                (P13) values[12], (P14) values[13], (P15) values[14], (P16) values[15]
+        );
+        return groupOf(
+                fromFields, fromValues, codec1, codec2, codec3, codec4, codec5, codec6, codec7, codec8, codec9, codec10,
+                codec11, codec12, codec13, codec14, codec15, codec16
+        );
+    }
+
+    /**
+     * Builds the codec of a group from its fields, encoding and writing them in order.
+     * <p>
+     * If every field knows its key and the keys are distinct, a {@link DataMap} is decoded by
+     * {@link #decodeGroup(DataElement, KeyIndex, FieldsDecoder)}, otherwise field by field by
+     * {@link #decodeFields(DataElement, Function, List)}.
+     *
+     * @param fromFields decodes the values of the fields, found by their keys, in order and constructs the group
+     * @param fromValues constructs the group from the decoded values of the fields in order
+     */
+    @SafeVarargs
+    private static <T> Codec<T> groupOf(
+            FieldsDecoder<T> fromFields,
+            Function<Object[], T> fromValues,
+            BoundFieldCodec<T, ?>... codecs
+    ) {
+        // copied to a list, a varargs array must not escape into a lambda
+        List<BoundFieldCodec<T, ?>> fields = new ArrayList<>(codecs.length);
+        for (BoundFieldCodec<T, ?> codec : codecs) fields.add(codec);
+        String[] keys = keysOf(fields);
+        KeyIndex index = KeyIndex.of(keys);
+        Decoder<T> decoder = index == null
+                ? element -> decodeFields(element, fromValues, fields)
+                : element -> decodeGroup(element, index, fromFields);
+        return of(
+                t -> {
+                    DataMap map = new DataMap();
+                    for (BoundFieldCodec<T, ?> field : fields) {
+                        Optional<String> error = field.encode(t, map);
+                        if (error.isPresent()) return Result.error(error.get());
+                    }
+                    return Result.result(map);
+                },
+                decoder,
+                (t, writer) -> writeGroup(t, writer, fields),
+                reader -> readGroup(reader, decoder, keys, fromValues, fields)
+        );
+    }
+
+    /**
+     * Decodes each field from the whole element, for fields without a key or with keys that aren't distinct.
+     */
+    private static <T> Result<T, String> decodeFields(
+            DataElement element,
+            Function<Object[], T> fromValues,
+            List<BoundFieldCodec<T, ?>> fields
+    ) {
+        Object[] values = new Object[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            Result<?, String> result = fields.get(i).decode(element);
+            if (!result.isPresent()) return result.castError();
+            values[i] = result.value();
+        }
+        return Result.result(fromValues.apply(values));
+    }
+
+    /**
+     * Decodes a map with a single type check and a single pass over its entries. Each key is looked up in the
+     * precomputed index, or compared in place by a lazy map, and the values of the fields are only decoded once all
+     * entries have been visited.
+     *
+     * @see DataMap#getAll(KeyIndex, DataElement[])
+     */
+    private static <T> Result<T, String> decodeGroup(DataElement element, KeyIndex index, FieldsDecoder<T> fromFields) {
+        if (element.type() != DataElement.Type.MAP_TYPE) return typeError(DataElement.Type.MAP_TYPE, element.type());
+
+        String[] keys = index.keys();
+        DataElement[] fields = new DataElement[keys.length];
+        element.as(DataElement.Type.MAP_TYPE).getAll(index, fields);
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] == null) return missingKey(keys[i]);
+        }
+        return fromFields.decode(fields);
+    }
+
+    private static <T> Optional<String> writeGroup(T t, DataWriter writer, List<BoundFieldCodec<T, ?>> fields) throws IOException {
+        writer.openMap();
+        for (BoundFieldCodec<T, ?> field : fields) {
+            Optional<String> error = field.write(t, writer);
+            if (error.isPresent()) return error;
+        }
+        writer.closeMap();
+        return Optional.empty();
+    }
+
+    /**
+     * @return the keys of the fields, or {@code null} if any field doesn't know its key
+     */
+    private static <T> String[] keysOf(List<BoundFieldCodec<T, ?>> fields) {
+        String[] keys = new String[fields.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = fields.get(i).key();
+            if (keys[i] == null) return null;
+        }
+        return keys;
+    }
+
+    /**
+     * Reads a map field by field, in the order the keys appear. Keys are matched against the group's key set as they
+     * are read, and the values of unknown keys are skipped without being decoded.
+     * <p>
+     * If any field doesn't know its key, the map is read into a {@link DataMap} and given to the decoder instead.
+     *
+     * @param keys the keys of the fields, as returned by {@link #keysOf(List)}
+     */
+    private static <T> Result<T, String> readGroup(
+            DataReader reader,
+            Decoder<T> decoder,
+            String[] keys,
+            Function<Object[], T> constructor,
+            List<BoundFieldCodec<T, ?>> fields
+    ) throws IOException {
+        DataElement.Type<?> type = reader.nextType();
+        if (type != DataElement.Type.MAP_TYPE) return typeError(DataElement.Type.MAP_TYPE, type);
+        if (keys == null) return decoder.decode(DataMap.read(reader));
+
+        Object[] values = new Object[fields.size()];
+        boolean[] present = new boolean[values.length];
+        reader.enterMap();
+        while (reader.hasNext()) {
+            int i = reader.readKey(keys);
+            if (i < 0) {
+                reader.skipValue();
+                continue;
+            }
+            Result<?, String> result = fields.get(i).readValue(reader);
+            if (!result.isPresent()) return result.castError();
+            values[i] = result.value();
+            present[i] = true;
+        }
+        reader.leaveMap();
+
+        for (int i = 0; i < values.length; i++) {
+            if (!present[i]) return missingKey(keys[i]);
+        }
+        return Result.result(constructor.apply(values));
+    }
+
+    /**
+     * Decodes the elements of the fields of a group, all present and in order, and constructs the group.
+     */
+    @FunctionalInterface
+    private interface FieldsDecoder<T> {
+        Result<T, String> decode(DataElement[] fields);
+    }
+
     public interface CodecGroup<T, P> {
         <B extends Boxable<BoxedFunction<P, T, B>>> Codec<T> build(B builder);
     }
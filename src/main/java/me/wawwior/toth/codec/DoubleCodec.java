@@ -0,0 +1,203 @@
+package me.wawwior.toth.codec;
+
+import me.wawwior.toth.DataReader;
+import me.wawwior.toth.DataWriter;
+import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.data.DataList;
+import me.wawwior.toth.data.DataMap;
+import me.wawwior.toth.data.primitives.DataNumber;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The {@link Codec} of {@code double}, with methods that take and return the primitive.
+ * <p>
+ * The methods of {@link Codec} box every value, use {@link #encodeDouble(double)},
+ * {@link #decodeDouble(DataElement)} and {@link #arrayOf()} instead where that matters.
+ */
+public final class DoubleCodec extends Codec<Double> {
+
+    DoubleCodec() {}
+
+    public DataElement encodeDouble(double value) {
+        return new DataNumber(value);
+    }
+
+    public void writeDouble(double value, DataWriter writer) throws IOException {
+        writer.value(value);
+    }
+
+    public DoubleResult decodeDouble(DataElement element) {
+        if (element.type() != DataElement.Type.NUMBER_TYPE) {
+            return DoubleResult.error(typeError(DataElement.Type.NUMBER_TYPE, element.type()));
+        }
+        return DoubleResult.of(element.as(DataElement.Type.NUMBER_TYPE).asDouble());
+    }
+
+    /**
+     * @param reader the reader
+     * @return the value, or an error if it could not be decoded
+     * @throws IOException Propagated from the reader.
+     * @see StreamDecoder#read(DataReader)
+     */
+    public DoubleResult readDouble(DataReader reader) throws IOException {
+        DataElement.Type<?> type = reader.nextType();
+        if (type != DataElement.Type.NUMBER_TYPE) return DoubleResult.error(typeError(DataElement.Type.NUMBER_TYPE, type));
+        return DoubleResult.of(reader.readDouble());
+    }
+
+    @Override
+    public Result<DataElement, String> encode(Double value) {
+        return Result.result(encodeDouble(value));
+    }
+
+    @Override
+    public Result<Double, String> decode(DataElement element) {
+        return decodeDouble(element).boxed();
+    }
+
+    @Override
+    public Optional<String> write(Double value, DataWriter writer) throws IOException {
+        writeDouble(value, writer);
+        return Optional.empty();
+    }
+
+    @Override
+    public Result<Double, String> read(DataReader reader) throws IOException {
+        return readDouble(reader).boxed();
+    }
+
+    /**
+     * A field of a group that gets its value from a {@code double} getter, so it is encoded without boxing.
+     *
+     * @param key    the key of the field
+     * @param getter the getter, e.g. an accessor of a record
+     * @param <O>    the type of the group
+     * @return the bound field
+     */
+    public <O> BoundFieldCodec<O, Double> fieldOf(String key, ToDoubleFunction<O> getter) {
+        FieldCodec<Double> field = fieldOf(key);
+        return new BoundFieldCodec<>() {
+            @Override
+            public Optional<String> encode(O element, DataMap map) {
+                map.put(key, encodeDouble(getter.applyAsDouble(element)));
+                return Optional.empty();
+            }
+
+            @Override
+            public Optional<String> write(O element, DataWriter writer) throws IOException {
+                writer.key(key);
+                writeDouble(getter.applyAsDouble(element), writer);
+                return Optional.empty();
+            }
+
+            @Override
+            public Result<Double, String> decode(DataElement element) {
+                return field.decode(element);
+            }
+
+            @Override
+            public String key() {
+                return key;
+            }
+
+            @Override
+            public Result<Double, String> decodeValue(DataElement value) {
+                return decodeDouble(value).boxed();
+            }
+
+            @Override
+            public Result<Double, String> readValue(DataReader reader) throws IOException {
+                return readDouble(reader).boxed();
+            }
+        };
+    }
+
+    /**
+     * @return a codec of {@code double[]}, that doesn't box its elements
+     */
+    public Codec<double[]> arrayOf() {
+        return Codec.of(
+                array -> {
+                    DataList data = new DataList();
+                    for (double value : array) data.add(encodeDouble(value));
+                    return Result.result(data);
+                },
+                data -> {
+                    if (data.type() != DataElement.Type.LIST_TYPE) return typeError(DataElement.Type.LIST_TYPE, data.type());
+                    DataList list = data.as(DataElement.Type.LIST_TYPE);
+                    double[] array = new double[list.size()];
+                    int size = 0;
+                    for (DataElement element : list) {
+                        DoubleResult result = decodeDouble(element);
+                        if (!result.isPresent()) return result.castError();
+                        array[size++] = result.value();
+                    }
+                    return Result.result(array);
+                },
+                (array, writer) -> {
+                    writer.openList();
+                    for (double value : array) writeDouble(value, writer);
+                    writer.closeList();
+                    return Optional.empty();
+                },
+                reader -> {
+                    DataElement.Type<?> type = reader.nextType();
+                    if (type != DataElement.Type.LIST_TYPE) return typeError(DataElement.Type.LIST_TYPE, type);
+                    double[] array = new double[16];
+                    int size = 0;
+                    reader.enterList();
+                    while (reader.hasNext()) {
+                        DoubleResult result = readDouble(reader);
+                        if (!result.isPresent()) return result.castError();
+                        if (size == array.length) array = Arrays.copyOf(array, size * 2);
+                        array[size++] = result.value();
+                    }
+                    reader.leaveList();
+                    return Result.result(Arrays.copyOf(array, size));
+                }
+        );
+    }
+
+    /**
+     * Either a {@code double} or an error, the primitive counterpart of {@link Result}.
+     *
+     * @param value   the value, {@code 0} if there is an error
+     * @param message renders the error, {@code null} if there is a value
+     */
+    public record DoubleResult(double value, Supplier<String> message) {
+
+        static DoubleResult of(double value) {
+            return new DoubleResult(value, null);
+        }
+
+        static DoubleResult error(Result<?, String> error) {
+            return new DoubleResult(0, error::error);
+        }
+
+        public boolean isPresent() {
+            return message == null;
+        }
+
+        public String error() {
+            return message == null ? null : message.get();
+        }
+
+        public Result<Double, String> boxed() {
+            if (message == null) return Result.result(value);
+            return Result.lazyError(message);
+        }
+
+        /**
+         * @return this error as a result of another type, without rendering its message
+         */
+        public <T> Result<T, String> castError() {
+            if (message == null) return Result.lazyError(() -> null);
+            return Result.lazyError(message);
+        }
+    }
+}
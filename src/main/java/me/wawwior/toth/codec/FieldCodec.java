@@ -1,8 +1,11 @@
 package me.wawwior.toth.codec;
 
+import me.wawwior.toth.DataReader;
+import me.wawwior.toth.DataWriter;
 import me.wawwior.toth.data.DataElement;
 import me.wawwior.toth.data.DataMap;
 
+import java.io.IOException;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -15,6 +18,11 @@ public abstract class FieldCodec<T> implements FieldEncoder<T>, Decoder<T>  {
                 return encoder.encode(element, map);
             }
 
+            @Override
+            public Optional<String> write(T element, DataWriter writer) throws IOException {
+                return encoder.write(element, writer);
+            }
+
             @Override
             public Result<T, String> decode(DataElement element) {
                 return decoder.decode(element);
@@ -22,6 +30,27 @@ public abstract class FieldCodec<T> implements FieldEncoder<T>, Decoder<T>  {
         };
     }
 
+    /**
+     * @see BoundFieldCodec#key()
+     */
+    public String key() {
+        return null;
+    }
+
+    /**
+     * @see BoundFieldCodec#decodeValue(DataElement)
+     */
+    public Result<T, String> decodeValue(DataElement value) {
+        return Result.error("Field cannot be decoded without a key!");
+    }
+
+    /**
+     * @see BoundFieldCodec#readValue(DataReader)
+     */
+    public Result<T, String> readValue(DataReader reader) throws IOException {
+        return Result.error("Field cannot be read without a key!");
+    }
+
     public <O> BoundFieldCodec<O, T> bind(Function<O, T> getter) {
         return new BoundFieldCodec<>() {
             @Override
@@ -33,6 +62,26 @@ public abstract class FieldCodec<T> implements FieldEncoder<T>, Decoder<T>  {
             public Optional<String> encode(O element, DataMap map) {
                 return FieldCodec.this.encode(getter.apply(element), map);
             }
+
+            @Override
+            public Optional<String> write(O element, DataWriter writer) throws IOException {
+                return FieldCodec.this.write(getter.apply(element), writer);
+            }
+
+            @Override
+            public String key() {
+                return FieldCodec.this.key();
+            }
+
+            @Override
+            public Result<T, String> decodeValue(DataElement value) {
+                return FieldCodec.this.decodeValue(value);
+            }
+
+            @Override
+            public Result<T, String> readValue(DataReader reader) throws IOException {
+                return FieldCodec.this.readValue(reader);
+            }
         };
     }
 }
@@ -1,11 +1,30 @@
 package me.wawwior.toth.codec;
 
+import me.wawwior.toth.DataWriter;
 import me.wawwior.toth.data.DataMap;
 
+import java.io.IOException;
 import java.util.Optional;
 
 public interface FieldEncoder<T> {
 
     Optional<String> encode(T element, DataMap map);
 
+    /**
+     * Writes the entries of this field into a map opened on the writer.
+     * <p>
+     * By default, they are encoded into a {@link DataMap} first.
+     *
+     * @param element the value
+     * @param writer  the writer
+     * @return an error, if the value could not be encoded
+     * @throws IOException Propagated from the writer.
+     */
+    default Optional<String> write(T element, DataWriter writer) throws IOException {
+        DataMap map = new DataMap();
+        Optional<String> error = encode(element, map);
+        if (error.isEmpty()) map.writeEntries(writer);
+        return error;
+    }
+
 }
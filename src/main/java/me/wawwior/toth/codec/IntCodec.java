@@ -0,0 +1,187 @@
+package me.wawwior.toth.codec;
+
+import me.wawwior.toth.DataReader;
+import me.wawwior.toth.DataWriter;
+import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.data.DataMap;
+import me.wawwior.toth.data.primitives.DataNumber;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * The {@link Codec} of {@code int}, with methods that take and return the primitive.
+ * <p>
+ * The methods of {@link Codec} box every value, use {@link #encodeInt(int)}, {@link #decodeInt(DataElement)} and
+ * {@link #arrayOf()} instead where that matters.
+ */
+public final class IntCodec extends IntegralCodec<Integer, int[]> {
+
+    IntCodec() {
+        super("an int");
+    }
+
+    public DataElement encodeInt(int value) {
+        return new DataNumber(value);
+    }
+
+    public void writeInt(int value, DataWriter writer) throws IOException {
+        writer.value(value);
+    }
+
+    public IntResult decodeInt(DataElement element) {
+        return IntResult.of(decodeIntegral(element));
+    }
+
+    /**
+     * @param reader the reader
+     * @return the value, or an error if it could not be decoded
+     * @throws IOException Propagated from the reader.
+     * @see StreamDecoder#read(DataReader)
+     */
+    public IntResult readInt(DataReader reader) throws IOException {
+        return IntResult.of(readIntegral(reader));
+    }
+
+    @Override
+    public Result<DataElement, String> encode(Integer value) {
+        return Result.result(encodeInt(value));
+    }
+
+    @Override
+    public Result<Integer, String> decode(DataElement element) {
+        return decodeInt(element).boxed();
+    }
+
+    @Override
+    public Optional<String> write(Integer value, DataWriter writer) throws IOException {
+        writeInt(value, writer);
+        return Optional.empty();
+    }
+
+    @Override
+    public Result<Integer, String> read(DataReader reader) throws IOException {
+        return readInt(reader).boxed();
+    }
+
+    /**
+     * A field of a group that gets its value from an {@code int} getter, so it is encoded without boxing.
+     *
+     * @param key    the key of the field
+     * @param getter the getter, e.g. an accessor of a record
+     * @param <O>    the type of the group
+     * @return the bound field
+     */
+    public <O> BoundFieldCodec<O, Integer> fieldOf(String key, ToIntFunction<O> getter) {
+        FieldCodec<Integer> field = fieldOf(key);
+        return new BoundFieldCodec<>() {
+            @Override
+            public Optional<String> encode(O element, DataMap map) {
+                map.put(key, encodeInt(getter.applyAsInt(element)));
+                return Optional.empty();
+            }
+
+            @Override
+            public Optional<String> write(O element, DataWriter writer) throws IOException {
+                writer.key(key);
+                writeInt(getter.applyAsInt(element), writer);
+                return Optional.empty();
+            }
+
+            @Override
+            public Result<Integer, String> decode(DataElement element) {
+                return field.decode(element);
+            }
+
+            @Override
+            public String key() {
+                return key;
+            }
+
+            @Override
+            public Result<Integer, String> decodeValue(DataElement value) {
+                return IntCodec.this.decode(value);
+            }
+
+            @Override
+            public Result<Integer, String> readValue(DataReader reader) throws IOException {
+                return IntCodec.this.read(reader);
+            }
+        };
+    }
+
+    @Override
+    DataNumber.Fit fits(DataNumber number) {
+        return number.fitsInt();
+    }
+
+    @Override
+    DataNumber.Fit fits(DataReader reader) throws IOException {
+        return reader.fitsInt();
+    }
+
+    @Override
+    int[] newArray(int length) {
+        return new int[length];
+    }
+
+    @Override
+    int length(int[] array) {
+        return array.length;
+    }
+
+    @Override
+    long get(int[] array, int i) {
+        return array[i];
+    }
+
+    @Override
+    void set(int[] array, int i, long value) {
+        array[i] = (int) value;
+    }
+
+    @Override
+    int[] copyOf(int[] array, int length) {
+        return Arrays.copyOf(array, length);
+    }
+
+    /**
+     * Either an {@code int} or an error, the primitive counterpart of {@link Result}.
+     *
+     * @param value   the value, {@code 0} if there is an error
+     * @param message renders the error, {@code null} if there is a value
+     */
+    public record IntResult(int value, Supplier<String> message) {
+
+        /**
+         * Narrows a result that has been checked to fit an {@code int}.
+         */
+        static IntResult of(LongCodec.LongResult result) {
+            return new IntResult((int) result.value(), result.message());
+        }
+
+        public boolean isPresent() {
+            return message == null;
+        }
+
+        public String error() {
+            return message == null ? null : message.get();
+        }
+
+        public Result<Integer, String> boxed() {
+            if (message == null) return Result.result(value);
+            return Result.lazyError(message);
+        }
+
+        /**
+         * @return this error as a result of another type, without rendering its message
+         */
+        public <T> Result<T, String> castError() {
+            if (message == null) return Result.lazyError(() -> null);
+            return Result.lazyError(message);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package me.wawwior.toth.codec;
+
+import me.wawwior.toth.DataReader;
+import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.data.DataList;
+import me.wawwior.toth.data.primitives.DataNumber;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * The decoding shared by {@link IntCodec} and {@link LongCodec}.
+ * <p>
+ * Numbers are checked against the range of the subclass first and then handled as a {@code long}, which holds every
+ * value that fits either.
+ *
+ * @param <T> the boxed type
+ * @param <A> the array type
+ */
+abstract class IntegralCodec<T extends Number, A> extends Codec<T> {
+
+    /**
+     * The integral type, for error messages, e.g. "an int".
+     */
+    private final String target;
+
+    IntegralCodec(String target) {
+        this.target = target;
+    }
+
+    /**
+     * @see DataNumber#fitsInt()
+     */
+    abstract DataNumber.Fit fits(DataNumber number);
+
+    /**
+     * @see DataReader#fitsInt()
+     */
+    abstract DataNumber.Fit fits(DataReader reader) throws IOException;
+
+    abstract A newArray(int length);
+
+    abstract int length(A array);
+
+    /**
+     * @return the element at {@code i}, widened to a {@code long}
+     */
+    abstract long get(A array, int i);
+
+    /**
+     * Stores a value that has been checked by {@link #fits(DataNumber)} or {@link #fits(DataReader)}.
+     */
+    abstract void set(A array, int i, long value);
+
+    abstract A copyOf(A array, int length);
+
+    final LongCodec.LongResult decodeIntegral(DataElement element) {
+        if (element.type() != DataElement.Type.NUMBER_TYPE) {
+            return LongCodec.LongResult.error(typeError(DataElement.Type.NUMBER_TYPE, element.type()));
+        }
+        DataNumber number = element.as(DataElement.Type.NUMBER_TYPE);
+        DataNumber.Fit fit = fits(number);
+        if (fit != DataNumber.Fit.EXACT) return LongCodec.LongResult.error(numberError(number, fit, target));
+        return LongCodec.LongResult.of(number.asLong());
+    }
+
+    final LongCodec.LongResult readIntegral(DataReader reader) throws IOException {
+        DataElement.Type<?> type = reader.nextType();
+        if (type != DataElement.Type.NUMBER_TYPE) {
+            return LongCodec.LongResult.error(typeError(DataElement.Type.NUMBER_TYPE, type));
+        }
+        DataNumber.Fit fit = fits(reader);
+        if (fit != DataNumber.Fit.EXACT) return LongCodec.LongResult.error(numberError(reader.readNumber(), fit, target));
+        return LongCodec.LongResult.of(reader.readLong());
+    }
+
+    /**
+     * @return a codec of the primitive array, that doesn't box its elements
+     */
+    public final Codec<A> arrayOf() {
+        return Codec.of(
+                array -> {
+                    DataList data = new DataList();
+                    for (int i = 0; i < length(array); i++) data.add(new DataNumber(get(array, i)));
+                    return Result.result(data);
+                },
+                data -> {
+                    if (data.type() != DataElement.Type.LIST_TYPE) return typeError(DataElement.Type.LIST_TYPE, data.type());
+                    DataList list = data.as(DataElement.Type.LIST_TYPE);
+                    A array = newArray(list.size());
+                    int size = 0;
+                    for (DataElement element : list) {
+                        LongCodec.LongResult result = decodeIntegral(element);
+                        if (!result.isPresent()) return result.castError();
+                        set(array, size++, result.value());
+                    }
+                    return Result.result(array);
+                },
+                (array, writer) -> {
+                    writer.openList();
+                    for (int i = 0; i < length(array); i++) writer.value(get(array, i));
+                    writer.closeList();
+                    return Optional.empty();
+                },
+                reader -> {
+                    DataElement.Type<?> type = reader.nextType();
+                    if (type != DataElement.Type.LIST_TYPE) return typeError(DataElement.Type.LIST_TYPE, type);
+                    A array = newArray(16);
+                    int size = 0;
+                    reader.enterList();
+                    while (reader.hasNext()) {
+                        LongCodec.LongResult result = readIntegral(reader);
+                        if (!result.isPresent()) return result.castError();
+                        if (size == length(array)) array = copyOf(array, size * 2);
+                        set(array, size++, result.value());
+                    }
+                    reader.leaveList();
+                    return Result.result(copyOf(array, size));
+                }
+        );
+    }
+}
@@ -0,0 +1,188 @@
+package me.wawwior.toth.codec;
+
+import me.wawwior.toth.DataReader;
+import me.wawwior.toth.DataWriter;
+import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.data.DataMap;
+import me.wawwior.toth.data.primitives.DataNumber;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * The {@link Codec} of {@code long}, with methods that take and return the primitive.
+ * <p>
+ * The methods of {@link Codec} box every value, use {@link #encodeLong(long)}, {@link #decodeLong(DataElement)} and
+ * {@link #arrayOf()} instead where that matters.
+ */
+public final class LongCodec extends IntegralCodec<Long, long[]> {
+
+    LongCodec() {
+        super("a long");
+    }
+
+    public DataElement encodeLong(long value) {
+        return new DataNumber(value);
+    }
+
+    public void writeLong(long value, DataWriter writer) throws IOException {
+        writer.value(value);
+    }
+
+    public LongResult decodeLong(DataElement element) {
+        return decodeIntegral(element);
+    }
+
+    /**
+     * @param reader the reader
+     * @return the value, or an error if it could not be decoded
+     * @throws IOException Propagated from the reader.
+     * @see StreamDecoder#read(DataReader)
+     */
+    public LongResult readLong(DataReader reader) throws IOException {
+        return readIntegral(reader);
+    }
+
+    @Override
+    public Result<DataElement, String> encode(Long value) {
+        return Result.result(encodeLong(value));
+    }
+
+    @Override
+    public Result<Long, String> decode(DataElement element) {
+        return decodeLong(element).boxed();
+    }
+
+    @Override
+    public Optional<String> write(Long value, DataWriter writer) throws IOException {
+        writeLong(value, writer);
+        return Optional.empty();
+    }
+
+    @Override
+    public Result<Long, String> read(DataReader reader) throws IOException {
+        return readLong(reader).boxed();
+    }
+
+    /**
+     * A field of a group that gets its value from a {@code long} getter, so it is encoded without boxing.
+     *
+     * @param key    the key of the field
+     * @param getter the getter, e.g. an accessor of a record
+     * @param <O>    the type of the group
+     * @return the bound field
+     */
+    public <O> BoundFieldCodec<O, Long> fieldOf(String key, ToLongFunction<O> getter) {
+        FieldCodec<Long> field = fieldOf(key);
+        return new BoundFieldCodec<>() {
+            @Override
+            public Optional<String> encode(O element, DataMap map) {
+                map.put(key, encodeLong(getter.applyAsLong(element)));
+                return Optional.empty();
+            }
+
+            @Override
+            public Optional<String> write(O element, DataWriter writer) throws IOException {
+                writer.key(key);
+                writeLong(getter.applyAsLong(element), writer);
+                return Optional.empty();
+            }
+
+            @Override
+            public Result<Long, String> decode(DataElement element) {
+                return field.decode(element);
+            }
+
+            @Override
+            public String key() {
+                return key;
+            }
+
+            @Override
+            public Result<Long, String> decodeValue(DataElement value) {
+                return LongCodec.this.decode(value);
+            }
+
+            @Override
+            public Result<Long, String> readValue(DataReader reader) throws IOException {
+                return LongCodec.this.read(reader);
+            }
+        };
+    }
+
+    @Override
+    DataNumber.Fit fits(DataNumber number) {
+        return number.fitsLong();
+    }
+
+    @Override
+    DataNumber.Fit fits(DataReader reader) throws IOException {
+        return reader.fitsLong();
+    }
+
+    @Override
+    long[] newArray(int length) {
+        return new long[length];
+    }
+
+    @Override
+    int length(long[] array) {
+        return array.length;
+    }
+
+    @Override
+    long get(long[] array, int i) {
+        return array[i];
+    }
+
+    @Override
+    void set(long[] array, int i, long value) {
+        array[i] = value;
+    }
+
+    @Override
+    long[] copyOf(long[] array, int length) {
+        return Arrays.copyOf(array, length);
+    }
+
+    /**
+     * Either a {@code long} or an error, the primitive counterpart of {@link Result}.
+     *
+     * @param value   the value, {@code 0} if there is an error
+     * @param message renders the error, {@code null} if there is a value
+     */
+    public record LongResult(long value, Supplier<String> message) {
+
+        static LongResult of(long value) {
+            return new LongResult(value, null);
+        }
+
+        static LongResult error(Result<?, String> error) {
+            return new LongResult(0, error::error);
+        }
+
+        public boolean isPresent() {
+            return message == null;
+        }
+
+        public String error() {
+            return message == null ? null : message.get();
+        }
+
+        public Result<Long, String> boxed() {
+            if (message == null) return Result.result(value);
+            return Result.lazyError(message);
+        }
+
+        /**
+         * @return this error as a result of another type, without rendering its message
+         */
+        public <T> Result<T, String> castError() {
+            if (message == null) return Result.lazyError(() -> null);
+            return Result.lazyError(message);
+        }
+    }
+}
@@ -3,7 +3,16 @@ package me.wawwior.toth.codec;
 import me.wawwior.toth.util.function.Fn;
 import me.wawwior.toth.util.tuple.Tuple2;
 
-public interface Result<T, E> {
+import java.util.function.Supplier;
+
+/**
+ * Either a value or an error.
+ * <p>
+ * Both cases are small final classes, so a result that doesn't escape can be scalar replaced. A lazy error keeps a
+ * {@link Supplier} of its message and only renders it on the first {@link #error()}, so failed attempts that are
+ * thrown away stay cheap.
+ */
+public sealed interface Result<T, E> permits Result.Success, Result.Failure {
 
     boolean isPresent();
 
@@ -21,9 +30,10 @@ public interface Result<T, E> {
         return castError();
     }
 
-    default <N> Result<N, E> castError() {
-        return Result.error(this.error());
-    }
+    /**
+     * @return this error as a result of another type, without rendering its message
+     */
+    <N> Result<N, E> castError();
 
     default <T2> Result<Tuple2<T, T2>, E> and(Result<T2, E> other) {
         if (!this.isPresent()) return this.castError();
@@ -32,41 +42,83 @@ public interface Result<T, E> {
     }
 
     static <T, E> Result<T, E> error(E error) {
-        return new Result<>() {
-            @Override
-            public boolean isPresent() {
-                return false;
-            }
-
-            @Override
-            public T value() {
-                return null;
-            }
+        return new Failure<>(error, null);
+    }
 
-            @Override
-            public E error() {
-                return error;
-            }
-        };
+    /**
+     * @param error renders the error on the first call of {@link #error()}, the message is kept from then on
+     */
+    static <T, E> Result<T, E> lazyError(Supplier<E> error) {
+        return new Failure<>(null, error);
     }
 
     static <T, E> Result<T, E> result(T t) {
-        return new Result<>() {
-            @Override
-            public boolean isPresent() {
-                return true;
-            }
+        return new Success<>(t);
+    }
 
-            @Override
-            public T value() {
-                return t;
-            }
+    record Success<T, E>(T value) implements Result<T, E> {
 
-            @Override
-            public E error() {
-                return null;
-            }
-        };
+        @Override
+        public boolean isPresent() {
+            return true;
+        }
+
+        @Override
+        public E error() {
+            return null;
+        }
+
+        @Override
+        public <N> Result<N, E> castError() {
+            return new Failure<>(null, null);
+        }
     }
 
+    final class Failure<T, E> implements Result<T, E> {
+
+        private E error;
+
+        /**
+         * Renders {@link #error}, {@code null} once it has been rendered or if the error was given eagerly.
+         */
+        private volatile Supplier<E> message;
+
+        private Failure(E error, Supplier<E> message) {
+            this.error = error;
+            this.message = message;
+        }
+
+        @Override
+        public boolean isPresent() {
+            return false;
+        }
+
+        @Override
+        public T value() {
+            return null;
+        }
+
+        @Override
+        public E error() {
+            Supplier<E> message = this.message;
+            if (message != null) {
+                // written before the volatile field is cleared, so other threads see it once they see null
+                error = message.get();
+                this.message = null;
+            }
+            return error;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <N> Result<N, E> castError() {
+            // holds no value, so it is a failure of any type
+            return (Result<N, E>) this;
+        }
+
+        @Override
+        public String toString() {
+            return "Failure[" + error() + "]";
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package me.wawwior.toth.codec;
+
+import me.wawwior.toth.DataReader;
+
+import java.io.IOException;
+
+public interface StreamDecoder<T> {
+
+    /**
+     * Reads the next value directly from a {@link DataReader}, without building a
+     * {@link me.wawwior.toth.data.DataElement}.
+     * <p>
+     * If an error is returned, the reader may be left anywhere within the value.
+     *
+     * @param reader the reader
+     * @return the value, or an error if it could not be decoded
+     * @throws IOException Propagated from the reader.
+     */
+    Result<T, String> read(DataReader reader) throws IOException;
+
+}
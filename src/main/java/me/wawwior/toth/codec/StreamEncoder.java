@@ -0,0 +1,22 @@
+package me.wawwior.toth.codec;
+
+import me.wawwior.toth.DataWriter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+public interface StreamEncoder<T> {
+
+    /**
+     * Writes a value directly to a {@link DataWriter}, without building a {@link me.wawwior.toth.data.DataElement}.
+     * <p>
+     * If an error is returned, the writer may already contain part of the value.
+     *
+     * @param t      the value
+     * @param writer the writer
+     * @return an error, if the value could not be encoded
+     * @throws IOException Propagated from the writer.
+     */
+    Optional<String> write(T t, DataWriter writer) throws IOException;
+
+}
@@ -5,21 +5,150 @@ import me.wawwior.toth.DataWriter;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.function.BiConsumer;
 
+/**
+ * A map of {@link DataElement DataElements} keeping insertion order.
+ * <p>
+ * Entries are stored in parallel key and value arrays. Small maps are searched linearly, larger ones get an
+ * open-addressing index of array positions.
+ */
 public class DataMap extends DataElement {
 
-    private final Map<String, DataElement> elements = new LinkedHashMap<>();
+    /**
+     * Maps with more entries than this are looked up through {@link #index}.
+     */
+    private static final int LINEAR_THRESHOLD = 8;
+
+    private static final String[] EMPTY_KEYS = new String[0];
+    private static final DataElement[] EMPTY_VALUES = new DataElement[0];
+
+    private String[] keys = EMPTY_KEYS;
+    private DataElement[] values = EMPTY_VALUES;
+    private int size = 0;
+
+    /**
+     * Slots hold an entry position + 1, or 0 if empty. {@code null} while the map is small.
+     */
+    private int[] index;
 
     public Optional<DataElement> get(String key) {
-        return Optional.ofNullable(elements.get(key));
+        int i = find(key);
+        return i < 0 ? Optional.empty() : Optional.ofNullable(values[i]);
     }
 
     public void put(String key, DataElement element) {
-        elements.put(key, element);
+        int i = find(key);
+        if (i >= 0) {
+            values[i] = element;
+            return;
+        }
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[size] = key;
+        values[size] = element;
+        size++;
+        if (size > LINEAR_THRESHOLD) {
+            if (index == null || size * 2 > index.length) {
+                rebuildIndex();
+            } else {
+                insertIndex(size - 1);
+            }
+        }
     }
 
     public void remove(String key) {
-        elements.remove(key);
+        int i = find(key);
+        if (i < 0) return;
+        if (index != null) unindex(i);
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(values, i + 1, values, i, size - i - 1);
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        if (size <= LINEAR_THRESHOLD) index = null;
+    }
+
+    /**
+     * Calls {@code action} with every entry, in insertion order.
+     *
+     * @param action receives the key and value of each entry
+     */
+    public void forEach(BiConsumer<String, DataElement> action) {
+        for (int i = 0; i < size; i++) action.accept(keys[i], values[i]);
+    }
+
+    /**
+     * Looks up several keys in a single pass over the entries.
+     * <p>
+     * Entries are matched through {@link KeyIndex#indexOf(String)}. Maps that can compare keys without creating
+     * {@link String Strings} may match against {@link KeyIndex#keys()} directly instead.
+     *
+     * @param keys   the keys to look up
+     * @param values receives the value of each key at the index of the key, left as is for missing keys
+     */
+    public void getAll(KeyIndex keys, DataElement[] values) {
+        for (int i = 0; i < size; i++) {
+            int k = keys.indexOf(this.keys[i]);
+            if (k >= 0) values[k] = this.values[i];
+        }
+    }
+
+    private int find(String key) {
+        if (index == null) {
+            for (int i = 0; i < size; i++) {
+                if (Objects.equals(keys[i], key)) return i;
+            }
+            return -1;
+        }
+        int mask = index.length - 1;
+        for (int slot = hash(key) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int i = index[slot] - 1;
+            if (Objects.equals(keys[i], key)) return i;
+        }
+        return -1;
+    }
+
+    private void rebuildIndex() {
+        index = new int[Integer.highestOneBit(size * 4 - 1)];
+        for (int i = 0; i < size; i++) insertIndex(i);
+    }
+
+    private void insertIndex(int i) {
+        int mask = index.length - 1;
+        int slot = hash(keys[i]) & mask;
+        while (index[slot] != 0) slot = (slot + 1) & mask;
+        index[slot] = i + 1;
+    }
+
+    /**
+     * Removes entry position {@code i} from the index by backward-shift deletion, then moves the positions after it
+     * down by one, like the arrays are about to be.
+     */
+    private void unindex(int i) {
+        int mask = index.length - 1;
+        int gap = hash(keys[i]) & mask;
+        while (index[gap] != i + 1) gap = (gap + 1) & mask;
+        for (int slot = (gap + 1) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int home = hash(keys[index[slot] - 1]) & mask;
+            // the entry may fill the gap if the gap lies between its home slot and its current one
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                index[gap] = index[slot];
+                gap = slot;
+            }
+        }
+        index[gap] = 0;
+        for (int slot = 0; slot < index.length; slot++) {
+            if (index[slot] > i + 1) index[slot]--;
+        }
+    }
+
+    private static int hash(String key) {
+        int h = Objects.hashCode(key);
+        return h ^ (h >>> 16);
     }
 
     public static DataMap read(DataReader reader) throws IOException {
@@ -36,13 +165,23 @@ public class DataMap extends DataElement {
     @Override
     public void write(DataWriter writer) throws IOException {
         writer.openMap();
-        for (Map.Entry<String, DataElement> entry : elements.entrySet()) {
-            writer.key(entry.getKey());
-            entry.getValue().write(writer);
-        }
+        writeEntries(writer);
         writer.closeMap();
     }
 
+    /**
+     * Writes the keys and values of this map into a map already opened on the writer.
+     *
+     * @param writer the writer
+     * @throws IOException If the writer isn't expecting a key.
+     */
+    public void writeEntries(DataWriter writer) throws IOException {
+        for (int i = 0; i < size; i++) {
+            writer.key(keys[i]);
+            values[i].write(writer);
+        }
+    }
+
     @Override
     public Type<DataMap> type() {
         return Type.MAP_TYPE;
@@ -0,0 +1,79 @@
+package me.wawwior.toth.data;
+
+/**
+ * Maps a set of keys to their index through a perfect hash, so every lookup is a single probe and at most one
+ * {@link String#equals(Object)}.
+ *
+ * @see DataMap#getAll(KeyIndex, DataElement[])
+ */
+public final class KeyIndex {
+
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    /**
+     * Attempts with different multipliers before the table is doubled.
+     */
+    private static final int ATTEMPTS = 32;
+
+    private final String[] keys;
+    private final String[] table;
+    private final int[] indices;
+    private final int multiplier;
+    private final int shift;
+
+    private KeyIndex(String[] keys, String[] table, int[] indices, int multiplier, int shift) {
+        this.keys = keys;
+        this.table = table;
+        this.indices = indices;
+        this.multiplier = multiplier;
+        this.shift = shift;
+    }
+
+    /**
+     * Searches a multiplier that sends every key to its own slot, in a table of at least twice the number of keys.
+     *
+     * @param keys the keys, may be {@code null}
+     * @return the index, or {@code null} if there are no keys or they aren't distinct
+     */
+    public static KeyIndex of(String[] keys) {
+        if (keys == null || keys.length == 0) return null;
+        int minBits = 32 - Integer.numberOfLeadingZeros(keys.length * 2 - 1);
+        for (int bits = minBits; bits <= minBits + 4; bits++) {
+            for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+                int multiplier = (GOLDEN_RATIO + attempt * 0x632BE5AB) | 1;
+                String[] table = new String[1 << bits];
+                int[] indices = new int[1 << bits];
+                boolean perfect = true;
+                for (int i = 0; i < keys.length && perfect; i++) {
+                    int slot = keys[i].hashCode() * multiplier >>> 32 - bits;
+                    if (table[slot] != null) {
+                        if (table[slot].equals(keys[i])) return null;
+                        perfect = false;
+                    }
+                    table[slot] = keys[i];
+                    indices[slot] = i;
+                }
+                if (perfect) return new KeyIndex(keys.clone(), table, indices, multiplier, 32 - bits);
+            }
+        }
+        // e.g. keys with equal hash codes
+        return null;
+    }
+
+    /**
+     * @return the keys by their index, shared and not to be modified
+     */
+    public String[] keys() {
+        return keys;
+    }
+
+    /**
+     * @return the index of the key, or {@code -1}
+     */
+    public int indexOf(String key) {
+        if (key == null) return -1;
+        int slot = key.hashCode() * multiplier >>> shift;
+        String candidate = table[slot];
+        return candidate != null && candidate.equals(key) ? indices[slot] : -1;
+    }
+}
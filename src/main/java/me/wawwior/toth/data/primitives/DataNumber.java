@@ -3,43 +3,170 @@ package me.wawwior.toth.data.primitives;
 import me.wawwior.toth.DataReader;
 import me.wawwior.toth.DataWriter;
 import me.wawwior.toth.data.DataElement;
-import me.wawwior.toth.util.Suppliers;
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.function.Supplier;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * A number, stored as a primitive {@code long} or {@code double} whenever that holds it exactly.
+ * <p>
+ * Only numbers that fit neither keep a reference to their exact {@link Number}, e.g. a {@link GenericNumber} that
+ * creates its {@link BigDecimal} on demand.
+ */
 public class DataNumber extends DataElement {
 
+    private final boolean integral;
+    private final long longValue;
+    private final double doubleValue;
+
+    /**
+     * The exact value if it is neither a {@code long} nor a {@code double}, {@code null} otherwise.
+     */
     private final Number value;
 
+    public DataNumber(long value) {
+        this.integral = true;
+        this.longValue = value;
+        this.doubleValue = value;
+        this.value = null;
+    }
+
+    public DataNumber(double value) {
+        this.integral = false;
+        this.longValue = (long) value;
+        this.doubleValue = value;
+        this.value = null;
+    }
+
     public DataNumber(Number number) {
-        this.value = number;
+        if (isExactLong(number)) {
+            this.integral = true;
+            this.longValue = number.longValue();
+            this.doubleValue = longValue;
+            this.value = null;
+        } else if (number instanceof Double || number instanceof Float) {
+            this.integral = false;
+            this.longValue = number.longValue();
+            this.doubleValue = number.doubleValue();
+            this.value = null;
+        } else {
+            // the exact value decides how it fits on demand, so a GenericNumber doesn't create its BigDecimal here
+            this.integral = false;
+            this.longValue = 0;
+            this.doubleValue = number.doubleValue();
+            this.value = number;
+        }
+    }
+
+    /**
+     * @return whether the number is an integer that a {@code long} holds exactly
+     */
+    private static boolean isExactLong(Number number) {
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) return true;
+        if (number instanceof AtomicInteger || number instanceof AtomicLong || number instanceof LongAdder) return true;
+        if (number instanceof BigInteger integer) return integer.bitLength() < 64;
+        if (number instanceof BigDecimal decimal) return fitOf(decimal) == Fit.EXACT;
+        return false;
+    }
+
+    /**
+     * @return how the decimal fits a long, decided by its value and not by its scale
+     */
+    private static Fit fitOf(BigDecimal decimal) {
+        if (decimal.signum() == 0) return Fit.EXACT;
+        BigDecimal stripped = decimal.stripTrailingZeros();
+        if (stripped.scale() > 0) return Fit.FRACTIONAL;
+        // a long has at most 19 digits, checked first so a huge exponent doesn't expand into a huge integer
+        if (stripped.precision() - stripped.scale() > 19) return Fit.OUT_OF_RANGE;
+        return stripped.toBigInteger().bitLength() < 64 ? Fit.EXACT : Fit.OUT_OF_RANGE;
     }
 
     public static DataNumber read(DataReader reader) throws IOException {
         return new DataNumber(reader.readNumber());
     }
 
+    /**
+     * @return the value as an int
+     * @throws NumberFormatException If the value is not an integer or out of range.
+     * @see #fitsInt()
+     */
     public int asInt() {
-        return value.intValue();
+        if (fitsInt() != Fit.EXACT) throw new NumberFormatException(this + " is not an int!");
+        return (int) exactLong();
     }
 
+    /**
+     * @return the value as a long
+     * @throws NumberFormatException If the value is not an integer or out of range.
+     * @see #fitsLong()
+     */
     public long asLong() {
-        return value.longValue();
+        if (fitsLong() != Fit.EXACT) throw new NumberFormatException(this + " is not a long!");
+        return exactLong();
+    }
+
+    /**
+     * @return the value as a long, if it {@link #fitsLong() fits} exactly
+     */
+    private long exactLong() {
+        return value != null ? value.longValue() : longValue;
+    }
+
+    /**
+     * Checks whether {@link #asInt()} succeeds, without throwing.
+     *
+     * @return how the value fits an int
+     */
+    public Fit fitsInt() {
+        Fit fit = fitsLong();
+        if (fit != Fit.EXACT) return fit;
+        long l = exactLong();
+        return (int) l == l ? Fit.EXACT : Fit.OUT_OF_RANGE;
+    }
+
+    /**
+     * Checks whether {@link #asLong()} succeeds, without throwing.
+     *
+     * @return how the value fits a long
+     */
+    public Fit fitsLong() {
+        if (integral) return Fit.EXACT;
+        if (value instanceof BigInteger integer) return integer.bitLength() < 64 ? Fit.EXACT : Fit.OUT_OF_RANGE;
+        if (value instanceof BigDecimal decimal) return fitOf(decimal);
+        if (value instanceof GenericNumber number) return fitOf(number.bigDecimalValue());
+        // a double is not an integer, as a number written with a fraction isn't for DataReader#readLong()
+        return Fit.FRACTIONAL;
     }
 
     public float asFloat() {
-        return value.floatValue();
+        return value != null ? value.floatValue() : (float) doubleValue;
     }
 
     public double asDouble() {
-        return value.doubleValue();
+        return doubleValue;
+    }
+
+    /**
+     * @return a {@link Long}, {@link Double}, or the exact value this was created from
+     */
+    public Number value() {
+        if (value != null) return value;
+        return integral ? (Number) longValue : (Number) doubleValue;
     }
 
     @Override
     public void write(DataWriter writer) throws IOException {
-        writer.value(value);
+        if (value != null) {
+            writer.value(value);
+        } else if (integral) {
+            writer.value(longValue);
+        } else {
+            writer.value(doubleValue);
+        }
     }
 
     @Override
@@ -47,43 +174,67 @@ public class DataNumber extends DataElement {
         return Type.NUMBER_TYPE;
     }
 
+    @Override
+    public String toString() {
+        if (value != null) return value.toString();
+        return integral ? Long.toString(longValue) : Double.toString(doubleValue);
+    }
+
+    /**
+     * How a number fits an integral type.
+     */
+    public enum Fit {
+        /**
+         * The number is an integer within range.
+         */
+        EXACT,
+        /**
+         * The number is not an integer. A {@link DataReader} counts any number written with a fraction or an exponent
+         * as one, and so does a {@link DataNumber} holding a {@code double}.
+         */
+        FRACTIONAL,
+        /**
+         * The number is an integer, but out of range.
+         */
+        OUT_OF_RANGE
+    }
+
+    /**
+     * A number kept as its source text, for values that don't fit a {@code long} or {@code double} exactly.
+     */
     public static class GenericNumber extends Number {
 
         private final String value;
 
-        private final Supplier<BigDecimal> bigDecimal;
-        private final Supplier<Integer> intValue;
-        private final Supplier<Long> longValue;
-        private final Supplier<Float> floatValue;
-        private final Supplier<Double> doubleValue;
+        private BigDecimal bigDecimal;
 
         public GenericNumber(String value) {
             this.value = value;
-            this.bigDecimal = Suppliers.memoize(() -> new BigDecimal(value));
-            this.intValue = Suppliers.memoize(() -> Integer.parseInt(value));
-            this.longValue = Suppliers.memoize(() -> Long.parseLong(value));
-            this.floatValue = Suppliers.memoize(() -> Float.parseFloat(value));
-            this.doubleValue = Suppliers.memoize(() -> Double.parseDouble(value));
+        }
+
+        public BigDecimal bigDecimalValue() {
+            if (bigDecimal == null) bigDecimal = new BigDecimal(value);
+            return bigDecimal;
         }
 
         @Override
         public int intValue() {
-            return intValue.get();
+            return bigDecimalValue().intValue();
         }
 
         @Override
         public long longValue() {
-            return longValue.get();
+            return bigDecimalValue().longValue();
         }
 
         @Override
         public float floatValue() {
-            return floatValue.get();
+            return Float.parseFloat(value);
         }
 
         @Override
         public double doubleValue() {
-            return doubleValue.get();
+            return Double.parseDouble(value);
         }
 
         @Override
@@ -92,7 +243,7 @@ public class DataNumber extends DataElement {
 
             BigDecimal bigDecimal = new BigDecimal(that.toString());
 
-            return bigDecimal.compareTo(this.bigDecimal.get()) == 0;
+            return bigDecimal.compareTo(bigDecimalValue()) == 0;
 
         }
 
@@ -0,0 +1,687 @@
+package me.wawwior.toth.json;
+
+import me.wawwior.toth.DataReader;
+import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.data.primitives.DataNumber;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Stack;
+
+/**
+ * Tokenizer and state machine shared by the JSON {@link DataReader} implementations.
+ * <p>
+ * Subclasses only provide access to their input through {@link #peek()}, {@link #skip(int)} and
+ * {@link #readQuotedValue()}. Every structural char of JSON is ASCII, so {@link #peek()} may return either a char or a
+ * single byte of UTF-8.
+ */
+abstract class AbstractJsonReader implements DataReader {
+
+    private final Stack<JsonLocation> stack = new Stack<>();
+
+    static final char[] ESCAPES = new char[117];
+
+    static {
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+
+        ESCAPES['b'] = '\b';
+        ESCAPES['f'] = '\f';
+        ESCAPES['n'] = '\n';
+        ESCAPES['r'] = '\r';
+        ESCAPES['t'] = '\t';
+    }
+
+    static final byte OTHER = 0;
+    static final byte WHITESPACE = 1;
+    static final byte QUOTE = 2;
+    static final byte OPEN_MAP = 3;
+    static final byte CLOSE_MAP = 4;
+    static final byte OPEN_LIST = 5;
+    static final byte CLOSE_LIST = 6;
+    static final byte COMMA = 7;
+    static final byte COLON = 8;
+    static final byte MINUS = 9;
+    static final byte DIGIT = 10;
+    static final byte TRUE = 11;
+    static final byte FALSE = 12;
+    static final byte NULL = 13;
+    static final byte END = 14;
+
+    /**
+     * Class of every char below 256, used to classify a value from its first char.
+     */
+    static final byte[] CHAR_CLASSES = new byte[256];
+
+    static {
+        CHAR_CLASSES[' '] = WHITESPACE;
+        CHAR_CLASSES['\n'] = WHITESPACE;
+        CHAR_CLASSES['\r'] = WHITESPACE;
+        CHAR_CLASSES['\t'] = WHITESPACE;
+
+        CHAR_CLASSES['"'] = QUOTE;
+        CHAR_CLASSES['\''] = QUOTE;
+
+        CHAR_CLASSES['{'] = OPEN_MAP;
+        CHAR_CLASSES['}'] = CLOSE_MAP;
+        CHAR_CLASSES['['] = OPEN_LIST;
+        CHAR_CLASSES[']'] = CLOSE_LIST;
+        CHAR_CLASSES[','] = COMMA;
+        CHAR_CLASSES[':'] = COLON;
+
+        CHAR_CLASSES['-'] = MINUS;
+        for (char c = '0'; c <= '9'; c++) CHAR_CLASSES[c] = DIGIT;
+
+        CHAR_CLASSES['t'] = TRUE;
+        CHAR_CLASSES['f'] = FALSE;
+        CHAR_CLASSES['n'] = NULL;
+    }
+
+    /**
+     * Type of the value found by {@link #nextType()} that hasn't been read yet.
+     * <p>
+     * Maps, lists and strings are left on the cursor, literals and numbers are consumed and kept in
+     * {@link #pendingBoolean} and the number fields below respectively.
+     */
+    private DataElement.Type<?> pending = null;
+    private boolean pendingBoolean;
+
+    /**
+     * Chars of the pending number, only turned into a {@link String} when it is read as a {@link Number} or the fast
+     * conversions can't decide.
+     */
+    private char[] token = new char[32];
+    private int tokenLength = 0;
+
+    /**
+     * The pending number is {@code (negative ? -1 : 1) * significand * 10^exponent10}, with {@code significand} holding
+     * up to 19 significant digits as an unsigned long. {@code truncated} is set if non-zero digits were dropped.
+     */
+    private boolean negative;
+    private long significand;
+    private int significantDigits;
+    private int exponent10;
+    private boolean truncated;
+    private boolean integral;
+
+    /**
+     * Scratch space for {@link NumberFormatter#isShortest(double, long, int, char[])}.
+     */
+    private final char[] digits = new char[NumberFormatter.MAX_LENGTH];
+
+    /**
+     * Closing bracket of every scope entered by {@link #skipValue()}.
+     */
+    private byte[] skipScopes = new byte[16];
+
+    /**
+     * Canonical instances of recently read keys, {@code null} if disabled.
+     */
+    private final KeyCache keys;
+
+    /**
+     * @param keyCacheSize number of keys to cache, or {@code 0} to read every key into a new {@link String}
+     */
+    AbstractJsonReader(int keyCacheSize) {
+        if (keyCacheSize < 0) throw new IllegalArgumentException("Key cache size must not be negative!");
+        keys = keyCacheSize == 0 ? null : new KeyCache(keyCacheSize);
+        stack.push(JsonLocation.ROOT);
+    }
+
+    /**
+     * Returns the reader to its initial state, so another root value can be read.
+     */
+    void reset() {
+        stack.clear();
+        stack.push(JsonLocation.ROOT);
+        pending = null;
+    }
+
+    /**
+     * Moves on to the next of several root values in the input, e.g. the records of JSON Lines.
+     *
+     * @return whether another root value follows
+     * @throws IOException Propagated from the input
+     */
+    boolean nextRoot() throws IOException {
+        skipWhitespace();
+        if (peek() == -1) return false;
+        reset();
+        return true;
+    }
+
+    /**
+     * Skips whatever is left of the current root value, whether it has been partially read or not at all.
+     *
+     * @throws IOException If the rest of the value is malformed.
+     */
+    void skipRoot() throws IOException {
+        while (pending != null || stack.peek() != JsonLocation.CLOSED) {
+            JsonLocation location = stack.peek();
+            if (pending != null || location == JsonLocation.ROOT || location == JsonLocation.KEY) {
+                skipValue();
+            } else if (hasNext()) {
+                if (location.isMap()) {
+                    beforeKey();
+                    stack.push(JsonLocation.KEY);
+                    if (charClass(peek()) != QUOTE) throw unexpected(peek(), "key");
+                    skipQuoted();
+                } else {
+                    skipValue();
+                }
+            } else if (location.isMap()) {
+                leaveMap();
+            } else {
+                leaveList();
+            }
+        }
+    }
+
+    /**
+     * Returns the next char or byte without consuming it.
+     *
+     * @return the next input unit, or {@code -1} at the end of input
+     * @throws IOException Propagated from the input
+     */
+    abstract int peek() throws IOException;
+
+    /**
+     * Consumes up to {@code count} input units.
+     *
+     * @param count number of chars or bytes to skip
+     * @throws IOException Propagated from the input
+     */
+    abstract void skip(int count) throws IOException;
+
+    /**
+     * Reads a quoted string starting at the current position, resolving escapes.
+     *
+     * @return the decoded string
+     * @throws IOException If there is no well-formed string at the current position.
+     */
+    abstract String readQuotedValue() throws IOException;
+
+    /**
+     * Reads a quoted key like {@link #readQuotedValue()}, but returns the instance from the cache if it is there.
+     * <p>
+     * Keys without escapes should be hashed and looked up while they are scanned, without building a {@link String}.
+     *
+     * @param cache the key cache
+     * @return the decoded key
+     * @throws IOException If there is no well-formed string at the current position.
+     */
+    abstract String readQuotedKey(KeyCache cache) throws IOException;
+
+    /**
+     * Reads a quoted key and looks it up in {@code keys}, comparing it in place unless it contains escapes.
+     *
+     * @param keys the keys of interest
+     * @return the index of the key in {@code keys}, or {@code -1}
+     * @throws IOException If there is no well-formed string at the current position.
+     */
+    abstract int readQuotedKey(String[] keys) throws IOException;
+
+    static int indexOf(String[] keys, String key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Consumes a quoted string starting at the current position without decoding it.
+     *
+     * @throws IOException If there is no well-formed string at the current position.
+     */
+    void skipQuoted() throws IOException {
+        int quote = peek();
+        skip(1);
+        while (true) {
+            int c = peek();
+            if (c == -1) throw new IOException("Expected quotation mark, found EOF!");
+            skip(1);
+            if (c == quote) return;
+            if (c == '\\') {
+                checkEscape(peek());
+                skip(1);
+            }
+        }
+    }
+
+    static void checkEscape(int escaped) throws IOException {
+        if (escaped == -1) throw new IOException("Expected escaped char, found EOF!");
+        if (escaped >= ESCAPES.length || ESCAPES[escaped] == 0) throw new IOException("char '" + (char) escaped + "' cannot be escaped!");
+    }
+
+    @Override
+    public void enterMap() throws IOException {
+        consume(DataElement.Type.MAP_TYPE);
+        skip(1);
+        stack.push(JsonLocation.EMPTY_MAP);
+    }
+
+    @Override
+    public void leaveMap() throws IOException {
+        if (!stack.peek().isMap()) throw new IOException("State is " + stack.peek() + ", expected MAP or EMPTY_MAP!");
+        expectNoPending();
+        skipWhitespace();
+        expect('}');
+        stack.pop();
+    }
+
+    @Override
+    public void enterList() throws IOException {
+        consume(DataElement.Type.LIST_TYPE);
+        skip(1);
+        stack.push(JsonLocation.EMPTY_LIST);
+    }
+
+    @Override
+    public void leaveList() throws IOException {
+        if (!stack.peek().isList()) throw new IOException("State is " + stack.peek() + ", expected LIST or EMPTY_LIST!");
+        expectNoPending();
+        skipWhitespace();
+        expect(']');
+        stack.pop();
+    }
+
+    @Override
+    public String readKey() throws IOException {
+        beforeKey();
+        stack.push(JsonLocation.KEY);
+        return keys == null ? readQuotedValue() : readQuotedKey(keys);
+    }
+
+    @Override
+    public int readKey(String[] keys) throws IOException {
+        beforeKey();
+        stack.push(JsonLocation.KEY);
+        return readQuotedKey(keys);
+    }
+
+    @Override
+    public void expectNull() throws IOException {
+        consume(DataElement.Type.NULL_TYPE);
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        consume(DataElement.Type.BOOLEAN_TYPE);
+        return pendingBoolean;
+    }
+
+    @Override
+    public int readInt() throws IOException {
+        long l = readLong();
+        if (l < Integer.MIN_VALUE || l > Integer.MAX_VALUE) throw new NumberFormatException(tokenString() + " is out of range for an int!");
+        return (int) l;
+    }
+
+    @Override
+    public long readLong() throws IOException {
+        consume(DataElement.Type.NUMBER_TYPE);
+        if (!integral) throw new NumberFormatException(tokenString() + " is not an integer!");
+        if (!inLongRange()) throw new NumberFormatException(tokenString() + " is out of range for a long!");
+        return negative ? -significand : significand;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The number is already scanned by {@link #nextType()}, so this only inspects its digits.
+     *
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public DataNumber.Fit fitsInt() throws IOException {
+        DataNumber.Fit fit = fitsLong();
+        if (fit != DataNumber.Fit.EXACT) return fit;
+        long l = negative ? -significand : significand;
+        return l < Integer.MIN_VALUE || l > Integer.MAX_VALUE ? DataNumber.Fit.OUT_OF_RANGE : DataNumber.Fit.EXACT;
+    }
+
+    @Override
+    public DataNumber.Fit fitsLong() throws IOException {
+        DataElement.Type<?> type = nextType();
+        if (type != DataElement.Type.NUMBER_TYPE) throw new IOException("Expected " + DataElement.Type.NUMBER_TYPE + ", found " + type + "!");
+        if (!integral) return DataNumber.Fit.FRACTIONAL;
+        return inLongRange() ? DataNumber.Fit.EXACT : DataNumber.Fit.OUT_OF_RANGE;
+    }
+
+    private boolean inLongRange() {
+        // more than 19 digits always overflow, so the exponent is only non-zero then
+        if (exponent10 != 0) return false;
+        return negative ? Long.compareUnsigned(significand, Long.MIN_VALUE) <= 0 : significand >= 0;
+    }
+
+    @Override
+    public float readFloat() throws IOException {
+        consume(DataElement.Type.NUMBER_TYPE);
+        float f = NumberParser.toFloat(significand, exponent10, negative, truncated);
+        if (Float.isNaN(f)) f = Float.parseFloat(tokenString());
+        return f;
+    }
+
+    @Override
+    public double readDouble() throws IOException {
+        consume(DataElement.Type.NUMBER_TYPE);
+        double d = NumberParser.toDouble(significand, exponent10, negative, truncated);
+        if (Double.isNaN(d)) d = Double.parseDouble(tokenString());
+        return d;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Integers that fit are returned as {@link Long}. Numbers with a fraction or exponent are returned as
+     * {@link Double} if the shortest decimal of the {@code double} has the same digits, so writing it back loses
+     * nothing. Anything else keeps its text as a {@link DataNumber.GenericNumber}.
+     *
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public Number readNumber() throws IOException {
+        consume(DataElement.Type.NUMBER_TYPE);
+        if (integral && inLongRange()) return negative ? -significand : significand;
+        // integers out of range stay exact, so they fit nothing instead of being fractional
+        if (integral || truncated) return new DataNumber.GenericNumber(tokenString());
+        double d = NumberParser.toDouble(significand, exponent10, negative, false);
+        if (Double.isNaN(d)) d = Double.parseDouble(tokenString());
+        if (Double.isFinite(d) && NumberFormatter.isShortest(Math.abs(d), significand, exponent10, digits)) return d;
+        return new DataNumber.GenericNumber(tokenString());
+    }
+
+    private String tokenString() {
+        return new String(token, 0, tokenLength);
+    }
+
+    @Override
+    public String readString() throws IOException {
+        consume(DataElement.Type.STRING_TYPE);
+        return readQuotedValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Maps and lists are skipped by a scan that only tracks strings and bracket nesting, without building any tokens.
+     * Brackets have to match and strings have to be closed, but separators and the scalars between them aren't
+     * validated.
+     *
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public void skipValue() throws IOException {
+        DataElement.Type<?> type = nextType();
+        pending = null;
+        if (type == DataElement.Type.STRING_TYPE) {
+            skipQuoted();
+        } else if (type == DataElement.Type.MAP_TYPE || type == DataElement.Type.LIST_TYPE) {
+            skipStructure();
+        }
+    }
+
+    private void skipStructure() throws IOException {
+        int depth = 0;
+        do {
+            int c = peek();
+            switch (charClass(c)) {
+                case QUOTE -> {
+                    skipQuoted();
+                    continue;
+                }
+                case OPEN_MAP, OPEN_LIST -> {
+                    if (depth == skipScopes.length) skipScopes = Arrays.copyOf(skipScopes, depth * 2);
+                    skipScopes[depth++] = (byte) (c == '{' ? '}' : ']');
+                }
+                case CLOSE_MAP, CLOSE_LIST -> {
+                    if (c != skipScopes[--depth]) throw unexpected(c, "'" + (char) skipScopes[depth] + "'");
+                }
+                case END -> throw unexpected(c, "'" + (char) skipScopes[depth - 1] + "'");
+                default -> {
+                    skipPlain();
+                    continue;
+                }
+            }
+            skip(1);
+        } while (depth > 0);
+    }
+
+    /**
+     * Consumes the current char and any following ones that can't open or close a string, map or list.
+     *
+     * @throws IOException Propagated from the input
+     */
+    void skipPlain() throws IOException {
+        skip(1);
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        if (pending != null) return true;
+        if (stack.peek() == JsonLocation.KEY) throw new IOException("Cannot determine next while state is KEY!");
+        skipWhitespace();
+        int c = peek();
+        return c != -1 && c != '}' && c != ']';
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The value is classified from its first char. Literals and numbers are validated and consumed right away, so the
+     * following read doesn't have to scan them again.
+     *
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public DataElement.Type<?> nextType() throws IOException {
+        if (pending != null) return pending;
+
+        switch (stack.peek()) {
+            case MAP, EMPTY_MAP, CLOSED -> throw new IOException("Cannot get next type when state is " + stack.peek() + "!");
+            default -> {
+            }
+        }
+        beforeValue();
+
+        int c = peek();
+        pending = switch (charClass(c)) {
+            case OPEN_MAP -> DataElement.Type.MAP_TYPE;
+            case OPEN_LIST -> DataElement.Type.LIST_TYPE;
+            case QUOTE -> DataElement.Type.STRING_TYPE;
+            case TRUE -> {
+                expectLiteral("true");
+                pendingBoolean = true;
+                yield DataElement.Type.BOOLEAN_TYPE;
+            }
+            case FALSE -> {
+                expectLiteral("false");
+                pendingBoolean = false;
+                yield DataElement.Type.BOOLEAN_TYPE;
+            }
+            case NULL -> {
+                expectLiteral("null");
+                yield DataElement.Type.NULL_TYPE;
+            }
+            case MINUS, DIGIT -> {
+                scanNumber();
+                yield DataElement.Type.NUMBER_TYPE;
+            }
+            default -> throw unexpected(c, "value");
+        };
+        return pending;
+    }
+
+    private static byte charClass(int c) {
+        if (c == -1) return END;
+        return c < 256 ? CHAR_CLASSES[c] : OTHER;
+    }
+
+    static boolean isDelimiter(int c) {
+        return switch (charClass(c)) {
+            case WHITESPACE, COMMA, CLOSE_MAP, CLOSE_LIST, END -> true;
+            default -> false;
+        };
+    }
+
+    static IOException unexpected(int c, String expected) {
+        if (c == -1) return new IOException("Expected " + expected + ", found end of reader!");
+        return new IOException("Expected " + expected + ", found '" + (char) c + "'!");
+    }
+
+    /**
+     * Takes the pending value if it is of the expected type.
+     */
+    private void consume(DataElement.Type<?> expected) throws IOException {
+        DataElement.Type<?> type = nextType();
+        if (type != expected) throw new IOException("Expected " + expected + ", found " + type + "!");
+        pending = null;
+    }
+
+    private void expectNoPending() throws IOException {
+        if (pending != null) throw new IOException("Value of type " + pending + " has not been read!");
+    }
+
+    private void expectLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (peek() != literal.charAt(i)) throw unexpected(peek(), "\"" + literal + "\"");
+            skip(1);
+        }
+        if (!isDelimiter(peek())) throw unexpected(peek(), "end of \"" + literal + "\"");
+    }
+
+    /**
+     * Validates a number in a single pass, copies it into {@link #token} and accumulates its digits.
+     */
+    private void scanNumber() throws IOException {
+        tokenLength = 0;
+        negative = false;
+        significand = 0;
+        significantDigits = 0;
+        exponent10 = 0;
+        truncated = false;
+        integral = true;
+
+        int c = peek();
+        if (c == '-') {
+            negative = true;
+            c = take(c);
+        }
+        if (c == '0') {
+            c = take(c);
+        } else if (charClass(c) == DIGIT) {
+            c = takeDigits(c, false);
+        } else {
+            throw unexpected(c, "digit");
+        }
+        if (c == '.') {
+            integral = false;
+            c = take(c);
+            if (charClass(c) != DIGIT) throw unexpected(c, "digit");
+            c = takeDigits(c, true);
+        }
+        if (c == 'e' || c == 'E') {
+            integral = false;
+            c = take(c);
+            boolean negativeExponent = c == '-';
+            if (c == '+' || c == '-') c = take(c);
+            if (charClass(c) != DIGIT) throw unexpected(c, "digit");
+            int exponent = 0;
+            while (charClass(c) == DIGIT) {
+                // anything this large is zero or infinite either way
+                if (exponent < 100_000) exponent = exponent * 10 + c - '0';
+                c = take(c);
+            }
+            exponent10 += negativeExponent ? -exponent : exponent;
+        }
+        if (!isDelimiter(c)) throw unexpected(c, "end of number");
+    }
+
+    private int takeDigits(int c, boolean fraction) throws IOException {
+        while (charClass(c) == DIGIT) {
+            int digit = c - '0';
+            if (significantDigits < 19) {
+                if (significand != 0 || digit != 0) {
+                    significand = significand * 10 + digit;
+                    significantDigits++;
+                }
+                if (fraction) exponent10--;
+            } else {
+                truncated |= digit != 0;
+                if (!fraction) exponent10++;
+            }
+            c = take(c);
+        }
+        return c;
+    }
+
+    /**
+     * Appends {@code c} to {@link #token}, consumes it and returns the char after it.
+     */
+    private int take(int c) throws IOException {
+        if (tokenLength == token.length) token = Arrays.copyOf(token, tokenLength * 2);
+        token[tokenLength++] = (char) c;
+        skip(1);
+        return peek();
+    }
+
+    private void expect(char c) throws IOException {
+        int actual = peek();
+        if (actual != c) throw unexpected(actual, "'" + c + "'");
+        skip(1);
+    }
+
+    private void beforeValue() throws IOException {
+        skipWhitespace();
+        switch (this.stack.peek()) {
+            case ROOT -> {
+                this.stack.pop();
+                this.stack.push(JsonLocation.CLOSED);
+            }
+            case KEY -> {
+                expect(':');
+                skipWhitespace();
+                this.stack.pop();
+            }
+            case LIST -> {
+                expect(',');
+                skipWhitespace();
+            }
+            case EMPTY_LIST -> {
+                this.stack.pop();
+                this.stack.push(JsonLocation.LIST);
+            }
+            case MAP, EMPTY_MAP, CLOSED -> throw new IOException("Cannot read value when state is " + this.stack.peek() + "!");
+        }
+    }
+
+    private void beforeKey() throws IOException {
+        expectNoPending();
+        skipWhitespace();
+        switch (this.stack.peek()) {
+            case MAP -> {
+                expect(',');
+                skipWhitespace();
+            }
+            case EMPTY_MAP -> {
+                this.stack.pop();
+                this.stack.push(JsonLocation.MAP);
+            }
+            case KEY, LIST, EMPTY_LIST, ROOT, CLOSED -> throw new IOException("Cannot read key when state is " + this.stack.peek() + "!");
+        }
+    }
+
+    /**
+     * Consumes reader until non-whitespace is encountered.
+     * skipWhitespace is idempotent.
+     * skipWhitespace should be non-interfering, as in no other method should rely on skipWhitespace not being called.
+     */
+    void skipWhitespace() throws IOException {
+        while (charClass(peek()) == WHITESPACE) {
+            skip(1);
+        }
+    }
+}
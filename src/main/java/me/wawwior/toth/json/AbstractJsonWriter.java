@@ -0,0 +1,440 @@
+package me.wawwior.toth.json;
+
+import me.wawwior.toth.DataWriter;
+import me.wawwior.toth.data.primitives.DataNumber;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Stack;
+
+/**
+ * State machine and formatting shared by the JSON writers.
+ * <p>
+ * Subclasses collect the output in their own buffer. It is flushed once the root value is complete, or on
+ * {@link #flush()}.
+ */
+abstract class AbstractJsonWriter implements DataWriter, Flushable {
+
+    static final String[] ESCAPES = new String[93];
+
+    static {
+        ESCAPES['\"'] = "\\\"";
+        ESCAPES['\\'] = "\\\\";
+
+        ESCAPES['\b'] = "\\b";
+        ESCAPES['\f'] = "\\f";
+        ESCAPES['\n'] = "\\n";
+        ESCAPES['\r'] = "\\r";
+        ESCAPES['\t'] = "\\t";
+    }
+
+    private final JsonWriter.Style style;
+    private final String comma;
+    private final String colon;
+
+    private final String newline;
+    private final int indentWidth;
+    private String indents;
+
+    private final char[] digits = new char[NumberFormatter.MAX_LENGTH];
+
+    private final Stack<JsonLocation> stack = new Stack<>();
+    private int indent = 0;
+
+    /**
+     * Set for JSON Lines, where each root value is followed by {@link #nextLine()} instead of a flush.
+     */
+    private boolean lines = false;
+
+    AbstractJsonWriter(JsonWriter.Style style) {
+        this.style = style;
+        if (style.spaces()) {
+            colon = ": ";
+        } else {
+            colon = ":";
+        }
+        if (style.newline().isEmpty() && style.spaces()) {
+            comma = ", ";
+        } else {
+            comma = ",";
+        }
+        newline = style.newline();
+        indentWidth = style.indent().length();
+        indents = style.indent().repeat(8);
+        stack.push(JsonLocation.ROOT);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    public DataWriter openMap() throws IOException {
+        beforeValue();
+        stack.push(JsonLocation.EMPTY_MAP);
+        append('{');
+        indent++;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    public DataWriter closeMap() throws IOException {
+        if (!stack.peek().isMap())
+            throw new IllegalArgumentException("State is " + stack.peek() + ", expected " + JsonLocation.MAP + " or " + JsonLocation.EMPTY_MAP + "!");
+        indent--;
+        if (stack.peek() == JsonLocation.MAP) {
+            writeNewline();
+            writeIndent();
+        }
+        stack.pop();
+        append('}');
+        return end();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    public DataWriter openList() throws IOException {
+        beforeValue();
+        stack.push(JsonLocation.EMPTY_LIST);
+        append('[');
+        indent++;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    public DataWriter closeList() throws IOException {
+        if (!stack.peek().isList())
+            throw new IllegalArgumentException("State is " + stack.peek() + ", expected " + JsonLocation.LIST + " or " + JsonLocation.EMPTY_LIST + "!");
+        indent--;
+        if (stack.peek() == JsonLocation.LIST) {
+            writeNewline();
+            writeIndent();
+        }
+        stack.pop();
+        append(']');
+        return end();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param key {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    public DataWriter key(String key) throws IOException {
+        beforeKey();
+        stack.push(JsonLocation.KEY);
+        return string(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param b {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public DataWriter value(boolean b) throws IOException {
+        beforeValue();
+        append(b ? "true" : "false");
+        return end();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param i {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public DataWriter value(int i) throws IOException {
+        beforeValue();
+        appendLong(i);
+        return end();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param l {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public DataWriter value(long l) throws IOException {
+        beforeValue();
+        appendLong(l);
+        return end();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param f {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public DataWriter value(float f) throws IOException {
+        beforeValue();
+        boolean valid = Float.isFinite(f) && !Float.isNaN(f);
+        if (!valid) {
+            throw new IllegalArgumentException("float with value " + f + " is not valid in json!");
+        }
+        appendFloat(f);
+        return end();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param d {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public DataWriter value(double d) throws IOException {
+        beforeValue();
+        boolean valid = Double.isFinite(d) && !Double.isNaN(d);
+        if (!valid) {
+            throw new IllegalArgumentException("double with value " + d + " is not valid in json!");
+        }
+        appendDouble(d);
+        return end();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Boxed primitives are written like their primitive counterparts. {@link DataNumber.GenericNumber},
+     * {@link BigDecimal} and {@link BigInteger} are written exactly, anything else as its double value.
+     *
+     * @param number {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    @Override
+    public DataWriter value(Number number) throws IOException {
+        if (number == null) return nullValue();
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            return value(number.longValue());
+        }
+        if (number instanceof Float f) return value(f.floatValue());
+        if (number instanceof DataNumber.GenericNumber || number instanceof BigDecimal || number instanceof BigInteger) {
+            beforeValue();
+            append(number.toString());
+            return end();
+        }
+        return value(number.doubleValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param string {@inheritDoc}
+     * @return {@inheritDoc}
+     * @throws IOException {@inheritDoc}
+     */
+    public DataWriter value(String string) throws IOException {
+        if (string == null) return nullValue();
+        beforeValue();
+        string(string);
+        return end();
+    }
+
+    @Override
+    public DataWriter nullValue() throws IOException {
+        beforeValue();
+        append("null");
+        return end();
+    }
+
+    private AbstractJsonWriter string(String string) throws IOException {
+        append('"');
+        appendEscaped(string);
+        append('"');
+        return this;
+    }
+
+    /**
+     * @return the escape sequence of {@code c}, or {@code null} if it is written as-is
+     */
+    static String escape(char c) {
+        return c < ESCAPES.length ? ESCAPES[c] : null;
+    }
+
+    private void beforeValue() throws IOException {
+        switch (stack.peek()) {
+            case ROOT -> {
+                updateScope();
+            }
+            case LIST -> {
+                append(comma);
+                writeNewline();
+                writeIndent();
+            }
+            case EMPTY_LIST -> {
+                writeNewline();
+                writeIndent();
+                updateScope();
+            }
+            case KEY -> {
+                stack.pop();
+                append(colon);
+            }
+            case MAP, EMPTY_MAP, CLOSED->
+                    throw new IllegalArgumentException("State is " + stack.peek() + "!");
+        }
+    }
+
+    private void beforeKey() throws IOException {
+        switch (stack.peek()) {
+            case MAP -> {
+                append(comma);
+                writeNewline();
+                writeIndent();
+            }
+            case EMPTY_MAP -> {
+                writeNewline();
+                writeIndent();
+                updateScope();
+            }
+            case KEY, LIST, EMPTY_LIST, ROOT, CLOSED ->
+                    throw new IllegalArgumentException("State is " + stack.peek() + ", expected " + JsonLocation.MAP + "!");
+        }
+    }
+
+    private void updateScope() {
+        if (stack.peek().isList()) {
+            stack.pop();
+            stack.push(JsonLocation.LIST);
+            return;
+        }
+        if (stack.peek().isMap()) {
+            stack.pop();
+            stack.push(JsonLocation.MAP);
+        }
+        if (stack.peek() == JsonLocation.ROOT) {
+            stack.pop();
+            stack.push(JsonLocation.CLOSED);
+        }
+    }
+
+    private void writeNewline() throws IOException {
+        append(newline);
+    }
+
+    private void writeIndent() throws IOException {
+        if (newline.isEmpty()) return;
+        int length = indent * indentWidth;
+        if (indents.length() < length) indents = style.indent().repeat(indent * 2);
+        append(indents, 0, length);
+    }
+
+    private AbstractJsonWriter end() throws IOException {
+        if (!lines && stack.peek() == JsonLocation.CLOSED) flushBuffer();
+        return this;
+    }
+
+    /**
+     * Ends the completed root value with a line break and starts the next one.
+     * <p>
+     * From then on output is no longer flushed after every root value, only once the buffer is full or on
+     * {@link #flush()}.
+     *
+     * @throws IOException Propagated from the target.
+     */
+    void nextLine() throws IOException {
+        if (stack.peek() != JsonLocation.CLOSED)
+            throw new IllegalArgumentException("State is " + stack.peek() + ", expected " + JsonLocation.CLOSED + "!");
+        lines = true;
+        append('\n');
+        stack.pop();
+        stack.push(JsonLocation.ROOT);
+    }
+
+    /**
+     * Hands all buffered output to the target.
+     */
+    abstract void flushBuffer() throws IOException;
+
+    /**
+     * Appends a char from the ASCII range.
+     */
+    abstract void append(char c) throws IOException;
+
+    /**
+     * Appends chars from the ASCII range.
+     */
+    abstract void appendAscii(char[] chars, int length) throws IOException;
+
+    /**
+     * Appends {@code string[start, end)}, which may contain any char.
+     */
+    abstract void append(String string, int start, int end) throws IOException;
+
+    private void append(String string) throws IOException {
+        append(string, 0, string.length());
+    }
+
+    /**
+     * Appends the contents of a string literal, escaping chars where needed.
+     * <p>
+     * Runs without escapes are appended in bulk. Subclasses should look for escapes while copying into their buffer,
+     * so the string is only traversed once.
+     */
+    void appendEscaped(String string) throws IOException {
+        int start = 0;
+        int length = string.length();
+        for (int i = 0; i < length; i++) {
+            String replacement = escape(string.charAt(i));
+            if (replacement == null) continue;
+            // copy the unescaped run in one go
+            append(string, start, i);
+            append(replacement);
+            start = i + 1;
+        }
+        append(string, start, length);
+    }
+
+    /**
+     * Formats into a scratch array and appends it. Subclasses with a char buffer can format into it directly.
+     */
+    void appendLong(long l) throws IOException {
+        appendAscii(digits, NumberFormatter.writeLong(l, digits, 0));
+    }
+
+    /**
+     * @see #appendLong(long)
+     */
+    void appendFloat(float f) throws IOException {
+        appendAscii(digits, NumberFormatter.writeFloat(f, digits, 0));
+    }
+
+    /**
+     * @see #appendLong(long)
+     */
+    void appendDouble(double d) throws IOException {
+        appendAscii(digits, NumberFormatter.writeDouble(d, digits, 0));
+    }
+}
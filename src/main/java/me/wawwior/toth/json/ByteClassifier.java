@@ -0,0 +1,110 @@
+package me.wawwior.toth.json;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Classifies blocks of 64 bytes into bitmaps of whitespace, quotes and structural chars.
+ * <p>
+ * Bit {@code i} of a bitmap describes the byte at {@code offset + i}. Bytes at or after the limit belong to no class.
+ * The bitmaps are purely lexical, a quote inside a string is marked like any other.
+ * <p>
+ * This implementation tests 8 bytes at a time within a {@code long}.
+ */
+class ByteClassifier {
+
+    static final int BLOCK_SIZE = 64;
+
+    static final int WHITESPACE = 0;
+    /**
+     * Quotation marks, apostrophes and backslashes.
+     */
+    static final int QUOTES = 1;
+    /**
+     * Brackets, colons and commas.
+     */
+    static final int STRUCTURAL = 2;
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private static final boolean VECTOR_API = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /**
+     * Creates the fastest classifier available. The one using the Vector API is only built with {@code -Pvector}
+     * and only used if the {@code jdk.incubator.vector} module is present. Classifiers may keep state, so they must
+     * not be shared between threads.
+     */
+    static ByteClassifier create() {
+        if (VECTOR_API) {
+            try {
+                return (ByteClassifier) Class.forName("me.wawwior.toth.json.VectorByteClassifier")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError ignored) {
+                // built without -Pvector
+            }
+        }
+        return new ByteClassifier();
+    }
+
+    /**
+     * Classifies a block into the bitmaps of all classes at once.
+     *
+     * @param bitmaps receives the bitmap of each class at {@link #WHITESPACE}, {@link #QUOTES} and {@link #STRUCTURAL}
+     */
+    void classify(ByteBuffer buffer, int offset, int limit, long[] bitmaps) {
+        int end = Math.min(offset + BLOCK_SIZE, limit);
+        boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        long whitespace = 0;
+        long quotes = 0;
+        long structural = 0;
+        int i = offset;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            long word = buffer.getLong(i);
+            if (bigEndian) word = Long.reverseBytes(word);
+            int shift = i - offset;
+            whitespace |= gather(matches(word, WHITESPACE)) << shift;
+            quotes |= gather(matches(word, QUOTES)) << shift;
+            structural |= gather(matches(word, STRUCTURAL)) << shift;
+        }
+        for (; i < end; i++) {
+            int b = buffer.get(i) & 0xFF;
+            long bit = 1L << (i - offset);
+            if (matches(b, WHITESPACE) != 0) whitespace |= bit;
+            if (matches(b, QUOTES) != 0) quotes |= bit;
+            if (matches(b, STRUCTURAL) != 0) structural |= bit;
+        }
+        bitmaps[WHITESPACE] = whitespace;
+        bitmaps[QUOTES] = quotes;
+        bitmaps[STRUCTURAL] = structural;
+    }
+
+    /**
+     * @return the high bit of every byte of {@code word} in the class
+     */
+    static long matches(long word, int kind) {
+        return switch (kind) {
+            case WHITESPACE -> equal(word, ' ') | equal(word, '\n') | equal(word, '\r') | equal(word, '\t');
+            case QUOTES -> equal(word, '"') | equal(word, '\'') | equal(word, '\\');
+            default -> equal(word, '{') | equal(word, '}') | equal(word, '[') | equal(word, ']')
+                    | equal(word, ':') | equal(word, ',');
+        };
+    }
+
+    /**
+     * @return the high bit of every byte of {@code word} that equals {@code c}
+     */
+    private static long equal(long word, char c) {
+        long v = word ^ ONES * c;
+        // the high bit survives only for zero bytes, without carries between bytes
+        return ~((v & LOW_BITS) + LOW_BITS | v | LOW_BITS);
+    }
+
+    /**
+     * Moves the high bit of byte {@code i} to bit {@code i}.
+     */
+    private static long gather(long highBits) {
+        return (highBits >>> 7) * 0x0102040810204080L >>> 56;
+    }
+}
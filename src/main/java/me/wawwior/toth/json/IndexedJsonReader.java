@@ -0,0 +1,69 @@
+package me.wawwior.toth.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link Utf8JsonReader} that steps through a {@link StructuralIndex} of its input instead of testing every byte.
+ * <p>
+ * The index is built when the reader is created, in one pass that classifies the whole input 64 bytes at a time.
+ * Whitespace, the plain parts of strings and the scalars inside skipped values are then passed over by moving to the
+ * next indexed position. The index holds an {@code int} for every structural byte, so memory use grows with the input.
+ */
+public class IndexedJsonReader extends Utf8JsonReader {
+
+    private final StructuralIndex index;
+
+    /**
+     * Constructs a new {@link IndexedJsonReader} reading the remaining bytes of the buffer.
+     *
+     * @param buffer UTF-8 encoded JSON, e.g. a {@link java.nio.MappedByteBuffer}
+     */
+    public IndexedJsonReader(ByteBuffer buffer) {
+        this(buffer, 0);
+    }
+
+    /**
+     * Constructs a new {@link IndexedJsonReader} that returns the same {@link String} instance for recurring keys.
+     *
+     * @param buffer       UTF-8 encoded JSON, e.g. a {@link java.nio.MappedByteBuffer}
+     * @param keyCacheSize number of keys to cache, or {@code 0} to disable the cache
+     */
+    public IndexedJsonReader(ByteBuffer buffer, int keyCacheSize) {
+        super(buffer, keyCacheSize);
+        this.index = new StructuralIndex(buffer, buffer.position(), limit, ByteClassifier.create());
+    }
+
+    /**
+     * Memory-maps a file and reads it without copying or decoding it upfront.
+     *
+     * @param path the UTF-8 encoded JSON file
+     * @return a reader over the whole file
+     * @throws IOException If the file cannot be mapped.
+     */
+    public static IndexedJsonReader map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new IndexedJsonReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @Override
+    int skipWhitespace(int from) {
+        // within a token, as whitespace always runs up to the next position
+        if (from < limit && CHAR_CLASSES[buffer.get(from) & 0xFF] != WHITESPACE) return from;
+        return index.next(from);
+    }
+
+    @Override
+    int findQuote(int from) {
+        return index.next(from);
+    }
+
+    @Override
+    int skipPlain(int from) {
+        return index.next(from);
+    }
+}
@@ -0,0 +1,128 @@
+package me.wawwior.toth.json;
+
+import me.wawwior.toth.DataReader;
+import me.wawwior.toth.codec.Result;
+import me.wawwior.toth.codec.StreamDecoder;
+import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.util.CatchingFunction;
+import me.wawwior.toth.util.Streams;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Reads JSON Lines, also known as NDJSON, a sequence of root values that are usually one per line.
+ * <p>
+ * Every record is read by the same reader from the same buffer, so memory use depends on the size of a record but not
+ * on their number. Any whitespace is accepted between records, including blank lines.
+ */
+public final class JsonLinesReader {
+
+    private final AbstractJsonReader reader;
+
+    /**
+     * Whether the reader is positioned at a record that may not have been read completely.
+     */
+    private boolean positioned = false;
+
+    /**
+     * Constructs a new {@link JsonLinesReader} reading records from chars.
+     *
+     * @param reader the reader, e.g. over a {@link me.wawwior.toth.util.StringCursor} of a {@link java.io.Reader}
+     */
+    public JsonLinesReader(JsonReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Constructs a new {@link JsonLinesReader} reading records from UTF-8 encoded bytes.
+     *
+     * @param reader the reader, e.g. over a {@link java.nio.MappedByteBuffer}
+     */
+    public JsonLinesReader(Utf8JsonReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Moves to the next record, skipping whatever hasn't been read of the current one.
+     * <p>
+     * A record that failed to decode can be left anywhere, it is skipped to its end before moving on.
+     *
+     * @return whether there is another record
+     * @throws IOException If the input is malformed.
+     */
+    public boolean next() throws IOException {
+        if (positioned) reader.skipRoot();
+        positioned = reader.nextRoot();
+        return positioned;
+    }
+
+    /**
+     * @return the reader, positioned at the current record by {@link #next()}
+     */
+    public DataReader reader() {
+        return reader;
+    }
+
+    /**
+     * Reads the remaining records into {@link DataElement DataElements} as the stream is consumed.
+     * <p>
+     * An {@link IOException} of the input is thrown as an {@link UncheckedIOException}.
+     *
+     * @return a sequential stream of the records
+     */
+    public Stream<DataElement> stream() {
+        return records(DataElement::read);
+    }
+
+    /**
+     * Decodes the remaining records as the stream is consumed, straight from the reader.
+     * <p>
+     * A record that fails to decode yields its error, the following records are still decoded. An {@link IOException}
+     * of the input is thrown as an {@link UncheckedIOException}.
+     *
+     * @param decoder the decoder of each record, e.g. a {@link me.wawwior.toth.codec.Codec}
+     * @param <T>     the type of the records
+     * @return a sequential stream of the results
+     */
+    public <T> Stream<Result<T, String>> stream(StreamDecoder<T> decoder) {
+        return records(decoder::read);
+    }
+
+    private <T> Stream<T> records(CatchingFunction<DataReader, T, IOException> read) {
+        Iterator<T> iterator = new Iterator<>() {
+
+            /**
+             * Whether there is another record, {@code null} if that hasn't been checked since the last one was read.
+             */
+            private Boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) {
+                    try {
+                        hasNext = JsonLinesReader.this.next();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return hasNext;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                hasNext = null;
+                try {
+                    return read.apply(reader);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return Streams.iteratorToFiniteStream(iterator, false);
+    }
+}
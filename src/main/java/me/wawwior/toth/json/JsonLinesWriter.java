@@ -0,0 +1,89 @@
+package me.wawwior.toth.json;
+
+import me.wawwior.toth.codec.Encoder;
+import me.wawwior.toth.codec.Result;
+import me.wawwior.toth.data.DataElement;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Optional;
+
+/**
+ * Writes JSON Lines, also known as NDJSON, one compact record per line.
+ * <p>
+ * Records are collected in the buffer of a single writer and handed to the target in large chunks, not one by one.
+ * Call {@link #flush()} once all records are written.
+ */
+public final class JsonLinesWriter implements Flushable {
+
+    private final AbstractJsonWriter writer;
+
+    /**
+     * Constructs a new {@link JsonLinesWriter} writing to the backing {@link Writer}.
+     *
+     * @param writer backing {@link Writer}
+     */
+    public JsonLinesWriter(Writer writer) {
+        this.writer = new JsonWriter(writer, JsonWriter.Style.compact());
+    }
+
+    /**
+     * Constructs a new {@link JsonLinesWriter} writing UTF-8 to an {@link OutputStream}.
+     *
+     * @param stream the stream
+     */
+    public JsonLinesWriter(OutputStream stream) {
+        this.writer = new Utf8JsonWriter(stream, JsonWriter.Style.compact());
+    }
+
+    /**
+     * Constructs a new {@link JsonLinesWriter} writing UTF-8 to a {@link WritableByteChannel}.
+     *
+     * @param channel the channel
+     */
+    public JsonLinesWriter(WritableByteChannel channel) {
+        this.writer = new Utf8JsonWriter(channel, JsonWriter.Style.compact());
+    }
+
+    /**
+     * Writes a record followed by a line break.
+     *
+     * @param element the record
+     * @throws IOException Propagated from the target.
+     */
+    public void write(DataElement element) throws IOException {
+        element.write(writer);
+        writer.nextLine();
+    }
+
+    /**
+     * Encodes and writes a record followed by a line break.
+     * <p>
+     * The record is encoded into a {@link DataElement} first, so one that fails to encode leaves no partial line behind.
+     *
+     * @param t       the record
+     * @param encoder the encoder, e.g. a {@link me.wawwior.toth.codec.Codec}
+     * @param <T>     the type of the record
+     * @return an error, if the record could not be encoded
+     * @throws IOException Propagated from the target.
+     */
+    public <T> Optional<String> write(T t, Encoder<T> encoder) throws IOException {
+        Result<DataElement, String> result = encoder.encode(t);
+        if (!result.isPresent()) return Optional.of(result.error());
+        write(result.value());
+        return Optional.empty();
+    }
+
+    /**
+     * Hands all buffered records to the target and flushes it.
+     *
+     * @throws IOException Propagated from the target.
+     */
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+}
@@ -0,0 +1,307 @@
+package me.wawwior.toth.json;
+
+import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.data.DataList;
+import me.wawwior.toth.data.DataMap;
+import me.wawwior.toth.data.primitives.DataString;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Stack;
+import java.util.function.Consumer;
+
+/**
+ * Parses JSON that is pushed to it in chunks of UTF-8 bytes, e.g. as they arrive on a non-blocking channel.
+ * <p>
+ * Unlike a {@link me.wawwior.toth.DataReader}, which pulls its input and blocks until it is available, the parser never
+ * waits. It consumes whatever it is fed and keeps unfinished tokens and open maps and lists until the next chunk, so
+ * chunks may be split anywhere, even inside a multi-byte char. Every root value is handed to the consumer once it is
+ * complete. Root values may follow each other, separated by whitespace.
+ * <p>
+ * A number or literal is only complete once something follows it, so one at the very end of the input is emitted by
+ * {@link #end()}. After an {@link IOException} the state of the parser is undefined.
+ */
+public final class JsonPushParser {
+
+    private static final int NONE = 0;
+    private static final int STRING = 1;
+    private static final int ESCAPE = 2;
+    private static final int SCALAR = 3;
+
+    private final Consumer<? super DataElement> consumer;
+
+    private final Stack<JsonLocation> stack = new Stack<>();
+
+    /**
+     * The open maps and lists, one for every {@code MAP} or {@code LIST} on the stack.
+     */
+    private final Stack<DataElement> containers = new Stack<>();
+
+    /**
+     * Keys waiting for their value, one for every {@code KEY} on the stack.
+     */
+    private final Stack<String> keys = new Stack<>();
+
+    /**
+     * Whether the ',' or ':' following the top of the stack has been consumed.
+     */
+    private boolean separated = false;
+
+    /**
+     * Kind of the unfinished token, {@link #NONE} between tokens.
+     */
+    private int token = NONE;
+    private int quote;
+    private boolean key;
+
+    /**
+     * Bytes of the unfinished token, with escapes already resolved.
+     */
+    private byte[] text = new byte[64];
+    private int length = 0;
+
+    /**
+     * Decodes finished numbers and literals from {@link #text}, {@code null} after it has grown.
+     */
+    private Utf8JsonReader scalars;
+
+    /**
+     * Constructs a new {@link JsonPushParser}.
+     *
+     * @param consumer receives every root value once it is complete
+     */
+    public JsonPushParser(Consumer<? super DataElement> consumer) {
+        this.consumer = consumer;
+        stack.push(JsonLocation.ROOT);
+    }
+
+    /**
+     * Parses all remaining bytes of the chunk, emitting the root values that are completed by it.
+     *
+     * @param chunk the next bytes of input, its position is moved to its limit
+     * @throws IOException If the input is malformed.
+     */
+    public void feed(ByteBuffer chunk) throws IOException {
+        int limit = chunk.limit();
+        int i = chunk.position();
+        while (i < limit) {
+            switch (token) {
+                case STRING -> i = readString(chunk, i, limit);
+                case ESCAPE -> {
+                    int c = chunk.get(i++) & 0xFF;
+                    AbstractJsonReader.checkEscape(c);
+                    append((byte) AbstractJsonReader.ESCAPES[c]);
+                    token = STRING;
+                }
+                case SCALAR -> {
+                    int c = chunk.get(i) & 0xFF;
+                    if (AbstractJsonReader.isDelimiter(c)) {
+                        finishScalar(c);
+                    } else {
+                        append((byte) c);
+                        i++;
+                    }
+                }
+                default -> structural(chunk.get(i++) & 0xFF);
+            }
+        }
+        chunk.position(limit);
+    }
+
+    /**
+     * Signals the end of input, emitting a number or literal that is still pending.
+     *
+     * @throws IOException If the input ends inside a value.
+     */
+    public void end() throws IOException {
+        switch (token) {
+            case SCALAR -> finishScalar(-1);
+            case STRING, ESCAPE -> throw new IOException("Expected quotation mark, found EOF!");
+            default -> {
+            }
+        }
+        if (stack.peek() != JsonLocation.ROOT) throw AbstractJsonReader.unexpected(-1, expected());
+    }
+
+    /**
+     * Copies the run of plain bytes up to the next quote or backslash.
+     */
+    private int readString(ByteBuffer chunk, int from, int limit) throws IOException {
+        int i = from;
+        while (i < limit) {
+            int c = chunk.get(i) & 0xFF;
+            if (c == quote || c == '\\') break;
+            i++;
+        }
+        ensureCapacity(length + i - from);
+        chunk.get(from, text, length, i - from);
+        length += i - from;
+        if (i == limit) return i;
+
+        if (chunk.get(i) == '\\') {
+            token = ESCAPE;
+        } else {
+            finishString();
+        }
+        return i + 1;
+    }
+
+    private void structural(int c) throws IOException {
+        JsonLocation location = stack.peek();
+        switch (AbstractJsonReader.CHAR_CLASSES[c]) {
+            case AbstractJsonReader.WHITESPACE -> {
+            }
+            case AbstractJsonReader.QUOTE -> {
+                key = location == JsonLocation.EMPTY_MAP || location == JsonLocation.MAP && separated;
+                if (!key) beforeValue(c);
+                startToken(STRING);
+                quote = c;
+            }
+            case AbstractJsonReader.OPEN_MAP -> {
+                beforeValue(c);
+                open(new DataMap(), JsonLocation.EMPTY_MAP);
+            }
+            case AbstractJsonReader.OPEN_LIST -> {
+                beforeValue(c);
+                open(new DataList(), JsonLocation.EMPTY_LIST);
+            }
+            case AbstractJsonReader.CLOSE_MAP -> {
+                if (location != JsonLocation.EMPTY_MAP && (location != JsonLocation.MAP || separated)) {
+                    throw AbstractJsonReader.unexpected(c, expected());
+                }
+                close();
+            }
+            case AbstractJsonReader.CLOSE_LIST -> {
+                if (location != JsonLocation.EMPTY_LIST && (location != JsonLocation.LIST || separated)) {
+                    throw AbstractJsonReader.unexpected(c, expected());
+                }
+                close();
+            }
+            case AbstractJsonReader.COMMA -> {
+                if (location != JsonLocation.MAP && location != JsonLocation.LIST || separated) {
+                    throw AbstractJsonReader.unexpected(c, expected());
+                }
+                separated = true;
+            }
+            case AbstractJsonReader.COLON -> {
+                if (location != JsonLocation.KEY || separated) throw AbstractJsonReader.unexpected(c, expected());
+                separated = true;
+            }
+            case AbstractJsonReader.MINUS, AbstractJsonReader.DIGIT,
+                    AbstractJsonReader.TRUE, AbstractJsonReader.FALSE, AbstractJsonReader.NULL -> {
+                beforeValue(c);
+                startToken(SCALAR);
+                append((byte) c);
+            }
+            default -> throw AbstractJsonReader.unexpected(c, expected());
+        }
+    }
+
+    private void beforeValue(int c) throws IOException {
+        switch (stack.peek()) {
+            case ROOT, EMPTY_LIST -> {
+            }
+            case LIST, KEY -> {
+                if (!separated) throw AbstractJsonReader.unexpected(c, expected());
+            }
+            default -> throw AbstractJsonReader.unexpected(c, expected());
+        }
+    }
+
+    /**
+     * @return a description of what may follow in the current state
+     */
+    private String expected() {
+        return switch (stack.peek()) {
+            case EMPTY_LIST -> "value or ']'";
+            case LIST -> separated ? "value" : "',' or ']'";
+            case EMPTY_MAP -> "key or '}'";
+            case MAP -> separated ? "key" : "',' or '}'";
+            case KEY -> separated ? "value" : "':'";
+            default -> "value";
+        };
+    }
+
+    private void open(DataElement container, JsonLocation location) {
+        stack.push(location);
+        containers.push(container);
+        separated = false;
+    }
+
+    private void close() {
+        stack.pop();
+        complete(containers.pop());
+    }
+
+    /**
+     * Adds a finished value to the enclosing map or list, or emits it if it is a root value.
+     */
+    private void complete(DataElement element) {
+        switch (stack.peek()) {
+            case ROOT -> consumer.accept(element);
+            case KEY -> {
+                stack.pop();
+                ((DataMap) containers.peek()).put(keys.pop(), element);
+            }
+            default -> {
+                stack.pop();
+                stack.push(JsonLocation.LIST);
+                ((DataList) containers.peek()).add(element);
+            }
+        }
+        separated = false;
+    }
+
+    private void startToken(int kind) {
+        token = kind;
+        length = 0;
+    }
+
+    private void finishString() {
+        token = NONE;
+        String value = new String(text, 0, length, StandardCharsets.UTF_8);
+        if (!key) {
+            complete(new DataString(value));
+            return;
+        }
+        stack.pop();
+        stack.push(JsonLocation.MAP);
+        stack.push(JsonLocation.KEY);
+        keys.push(value);
+        separated = false;
+    }
+
+    /**
+     * Decodes the pending number or literal, validating it like a {@link Utf8JsonReader} would.
+     *
+     * @param delimiter the byte following it, or {@code -1} at the end of input
+     */
+    private void finishScalar(int delimiter) throws IOException {
+        token = NONE;
+        Utf8JsonReader reader;
+        if (delimiter == -1) {
+            reader = new Utf8JsonReader(ByteBuffer.wrap(text, 0, length));
+        } else {
+            // the delimiter ends the token, so the reader never looks past it
+            ensureCapacity(length + 1);
+            text[length] = (byte) delimiter;
+            if (scalars == null) scalars = new Utf8JsonReader(ByteBuffer.wrap(text));
+            reader = scalars;
+            reader.seek(0);
+        }
+        complete(DataElement.read(reader));
+    }
+
+    private void append(byte b) {
+        ensureCapacity(length + 1);
+        text[length++] = b;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= text.length) return;
+        text = Arrays.copyOf(text, Math.max(capacity, text.length * 2));
+        scalars = null;
+    }
+}
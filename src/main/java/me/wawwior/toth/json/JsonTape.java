@@ -0,0 +1,314 @@
+package me.wawwior.toth.json;
+
+import me.wawwior.toth.data.DataElement;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads UTF-8 encoded JSON into {@link DataElement DataElements} that are only decoded on access.
+ * <p>
+ * The input is validated and indexed in a single pass, recording one {@code long} per token on a tape. Maps and lists
+ * are returned as {@link LazyDataMap} and {@link LazyDataList} views over that tape. Keys, strings and numbers stay
+ * encoded in the buffer until they are looked up, and the buffer must not change while the views are in use.
+ * <p>
+ * Like the rest of the data model, the views are not thread-safe.
+ */
+public final class JsonTape {
+
+    static final int MAP = 1;
+    static final int LIST = 2;
+    static final int STRING = 3;
+    static final int NUMBER = 4;
+    static final int LITERAL = 5;
+
+    /**
+     * A tape entry is {@code offset << 32 | count << 3 | kind}. The offset is the position of the token in the buffer,
+     * for maps and lists it is the index of the entry after the closing bracket instead. Maps and lists count their
+     * values in between.
+     */
+    private static final int COUNT_SHIFT = 3;
+    private static final long KIND_MASK = (1 << COUNT_SHIFT) - 1;
+
+    private final ByteBuffer buffer;
+    private final int limit;
+
+    private long[] tape = new long[64];
+    private int size = 0;
+
+    /**
+     * Decodes single values from the tape, starting at their offset.
+     */
+    private final Utf8JsonReader reader;
+
+    private JsonTape(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+        this.reader = new Utf8JsonReader(buffer);
+    }
+
+    /**
+     * Indexes the remaining bytes of the buffer.
+     *
+     * @param buffer UTF-8 encoded JSON, e.g. a {@link java.nio.MappedByteBuffer}
+     * @return the root element, a lazy view if it is a map or list
+     * @throws IOException If the input is not well-formed JSON.
+     */
+    public static DataElement read(ByteBuffer buffer) throws IOException {
+        JsonTape tape = new JsonTape(buffer);
+        tape.parse();
+        return tape.element(0);
+    }
+
+    /**
+     * Memory-maps a file and indexes it.
+     *
+     * @param path the UTF-8 encoded JSON file
+     * @return the root element, a lazy view if it is a map or list
+     * @throws IOException If the file cannot be mapped or is not well-formed JSON.
+     */
+    public static DataElement read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Indexes a string.
+     *
+     * @param json the JSON
+     * @return the root element, a lazy view if it is a map or list
+     * @throws IOException If the input is not well-formed JSON.
+     */
+    public static DataElement read(String json) throws IOException {
+        return read(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    int kind(int entry) {
+        return (int) (tape[entry] & KIND_MASK);
+    }
+
+    int count(int entry) {
+        return (int) tape[entry] >>> COUNT_SHIFT;
+    }
+
+    /**
+     * @return the index of the entry after the value at {@code entry}, skipping anything nested in it
+     */
+    int next(int entry) {
+        return switch (kind(entry)) {
+            case MAP, LIST -> offset(entry);
+            default -> entry + 1;
+        };
+    }
+
+    private int offset(int entry) {
+        return (int) (tape[entry] >>> 32);
+    }
+
+    /**
+     * Returns the value at {@code entry}, decoding it if it is a primitive.
+     */
+    DataElement element(int entry) {
+        return switch (kind(entry)) {
+            case MAP -> new LazyDataMap(this, entry);
+            case LIST -> new LazyDataList(this, entry);
+            default -> {
+                reader.seek(offset(entry));
+                try {
+                    yield DataElement.read(reader);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Buffer has changed since it was indexed!", e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Decodes the key at {@code entry}.
+     */
+    String key(int entry) {
+        reader.seek(offset(entry));
+        try {
+            return reader.readQuotedValue();
+        } catch (IOException e) {
+            throw new IllegalStateException("Buffer has changed since it was indexed!", e);
+        }
+    }
+
+    /**
+     * Compares the key at {@code entry} in place.
+     *
+     * @return the index of the key in {@code keys}, or {@code -1}
+     */
+    int matchKey(int entry, String[] keys) {
+        reader.seek(offset(entry));
+        try {
+            return reader.readQuotedKey(keys);
+        } catch (IOException e) {
+            throw new IllegalStateException("Buffer has changed since it was indexed!", e);
+        }
+    }
+
+    // Indexing
+
+    private int add(int kind, int offset) {
+        if (size == tape.length) tape = Arrays.copyOf(tape, size * 2);
+        tape[size] = (long) offset << 32 | kind;
+        return size++;
+    }
+
+    private int byteAt(int position) {
+        return position < limit ? buffer.get(position) & 0xFF : -1;
+    }
+
+    private void parse() throws IOException {
+        int[] open = new int[16];
+        int depth = 0;
+        int position = skipWhitespace(buffer.position());
+
+        value:
+        while (true) {
+            int c = byteAt(position);
+            switch (c == -1 ? AbstractJsonReader.END : AbstractJsonReader.CHAR_CLASSES[c]) {
+                case AbstractJsonReader.OPEN_MAP, AbstractJsonReader.OPEN_LIST -> {
+                    if (depth == open.length) open = Arrays.copyOf(open, depth * 2);
+                    open[depth++] = add(c == '{' ? MAP : LIST, 0);
+                    position = skipWhitespace(position + 1);
+                    if (byteAt(position) != (c == '{' ? '}' : ']')) {
+                        if (c == '{') position = indexKey(position);
+                        continue value;
+                    }
+                    // empty, so it is closed right away
+                    position++;
+                    depth--;
+                    close(open[depth]);
+                }
+                case AbstractJsonReader.QUOTE -> position = string(position);
+                case AbstractJsonReader.TRUE -> position = literal(position, "true");
+                case AbstractJsonReader.FALSE -> position = literal(position, "false");
+                case AbstractJsonReader.NULL -> position = literal(position, "null");
+                case AbstractJsonReader.MINUS, AbstractJsonReader.DIGIT -> position = number(position);
+                default -> throw AbstractJsonReader.unexpected(c, "value");
+            }
+
+            // a value is complete, continue in its parent
+            while (true) {
+                if (depth == 0) {
+                    position = skipWhitespace(position);
+                    if (position < limit) throw AbstractJsonReader.unexpected(byteAt(position), "end of input");
+                    return;
+                }
+                int container = open[depth - 1];
+                tape[container] += 1 << COUNT_SHIFT;
+                boolean map = kind(container) == MAP;
+                position = skipWhitespace(position);
+                c = byteAt(position);
+                if (c == ',') {
+                    position = skipWhitespace(position + 1);
+                    if (map) position = indexKey(position);
+                    continue value;
+                }
+                char closing = map ? '}' : ']';
+                if (c != closing) throw AbstractJsonReader.unexpected(c, "',' or '" + closing + "'");
+                position++;
+                depth--;
+                close(container);
+            }
+        }
+    }
+
+    private void close(int container) {
+        tape[container] |= (long) size << 32;
+    }
+
+    private int skipWhitespace(int position) {
+        while (position < limit && AbstractJsonReader.CHAR_CLASSES[buffer.get(position) & 0xFF] == AbstractJsonReader.WHITESPACE) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Indexes a key and the colon after it.
+     *
+     * @return the position of the value
+     */
+    private int indexKey(int position) throws IOException {
+        int c = byteAt(position);
+        if (c != '"' && c != '\'') throw AbstractJsonReader.unexpected(c, "key");
+        position = skipWhitespace(string(position));
+        c = byteAt(position);
+        if (c != ':') throw AbstractJsonReader.unexpected(c, "':'");
+        return skipWhitespace(position + 1);
+    }
+
+    private int string(int position) throws IOException {
+        add(STRING, position);
+        int quote = buffer.get(position++);
+        while (true) {
+            if (position >= limit) throw new IOException("Expected quotation mark, found EOF!");
+            byte b = buffer.get(position++);
+            if (b == quote) return position;
+            if (b == '\\') {
+                AbstractJsonReader.checkEscape(byteAt(position));
+                position++;
+            }
+        }
+    }
+
+    private int literal(int position, String literal) throws IOException {
+        add(LITERAL, position);
+        for (int i = 0; i < literal.length(); i++) {
+            if (byteAt(position) != literal.charAt(i)) throw AbstractJsonReader.unexpected(byteAt(position), "\"" + literal + "\"");
+            position++;
+        }
+        if (!isDelimiter(byteAt(position))) throw AbstractJsonReader.unexpected(byteAt(position), "end of \"" + literal + "\"");
+        return position;
+    }
+
+    /**
+     * Validates the syntax of a number, its value is only parsed on access.
+     */
+    private int number(int position) throws IOException {
+        add(NUMBER, position);
+        if (byteAt(position) == '-') position++;
+        if (byteAt(position) == '0') {
+            position++;
+        } else {
+            position = digits(position);
+        }
+        if (byteAt(position) == '.') position = digits(position + 1);
+        int c = byteAt(position);
+        if (c == 'e' || c == 'E') {
+            c = byteAt(++position);
+            if (c == '+' || c == '-') position++;
+            position = digits(position);
+        }
+        if (!isDelimiter(byteAt(position))) throw AbstractJsonReader.unexpected(byteAt(position), "end of number");
+        return position;
+    }
+
+    private int digits(int position) throws IOException {
+        if (!isDigit(byteAt(position))) throw AbstractJsonReader.unexpected(byteAt(position), "digit");
+        while (isDigit(byteAt(position))) position++;
+        return position;
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isDelimiter(int c) {
+        if (c == -1) return true;
+        return switch (AbstractJsonReader.CHAR_CLASSES[c]) {
+            case AbstractJsonReader.WHITESPACE, AbstractJsonReader.COMMA, AbstractJsonReader.CLOSE_MAP, AbstractJsonReader.CLOSE_LIST -> true;
+            default -> false;
+        };
+    }
+}
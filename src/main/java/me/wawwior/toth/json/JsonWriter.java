@@ -1,33 +1,22 @@
 package me.wawwior.toth.json;
 
-import me.wawwior.toth.DataWriter;
-
 import java.io.IOException;
 import java.io.Writer;
-import java.util.Stack;
-
-public class JsonWriter implements DataWriter {
 
-    private static final String[] ESCAPES = new String[93];
+/**
+ * Writes JSON to a {@link Writer}.
+ * <p>
+ * Output is collected in an internal buffer and handed to the {@link Writer} in large chunks. It is flushed once the
+ * root value is complete, or on {@link #flush()}.
+ */
+public class JsonWriter extends AbstractJsonWriter {
 
-    static {
-        ESCAPES['\"'] = "\\\"";
-        ESCAPES['\\'] = "\\\\";
-
-        ESCAPES['\b'] = "\\b";
-        ESCAPES['\f'] = "\\f";
-        ESCAPES['\n'] = "\\n";
-        ESCAPES['\r'] = "\\r";
-        ESCAPES['\t'] = "\\t";
-    }
+    private static final int BUFFER_SIZE = 8192;
 
     private final Writer writer;
-    private final JsonWriter.Style style;
-    private final String comma;
-    private final String colon;
 
-    private final Stack<JsonLocation> stack = new Stack<>();
-    private int indent = 0;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
 
     /**
      * Constructs a new {@link JsonWriter} writing to the backing {@link Writer}.
@@ -36,293 +25,99 @@ public class JsonWriter implements DataWriter {
      * @param style  style settings
      */
     public JsonWriter(Writer writer, Style style) {
+        super(style);
         this.writer = writer;
-        this.style = style;
-        if (style.spaces()) {
-            colon = ": ";
-        } else {
-            colon = ":";
-        }
-        if (style.newline().isEmpty() && style.spaces()) {
-            comma = ", ";
-        } else {
-            comma = ",";
-        }
-        stack.push(JsonLocation.ROOT);
     }
 
     /**
-     * {@inheritDoc}
+     * Flushes buffered output to the backing {@link Writer} and flushes it.
+     * <p>
+     * This happens automatically once the root value is complete.
      *
-     * @return {@inheritDoc}
-     * @throws IOException {@inheritDoc}
-     */
-    public DataWriter openMap() throws IOException {
-        beforeValue();
-        stack.push(JsonLocation.EMPTY_MAP);
-        writer.write("{");
-        indent++;
-        return this;
-    }
-
-    /**
-     * {@inheritDoc}
-     *
-     * @return {@inheritDoc}
-     * @throws IOException {@inheritDoc}
-     */
-    public DataWriter closeMap() throws IOException {
-        if (!stack.peek().isMap())
-            throw new IllegalArgumentException("State is " + stack.peek() + ", expected " + JsonLocation.MAP + " or " + JsonLocation.EMPTY_MAP + "!");
-        indent--;
-        if (stack.peek() == JsonLocation.MAP) {
-            writeNewline();
-            writeIndent();
-        }
-        stack.pop();
-        writer.write("}");
-        return this;
-    }
-
-    /**
-     * {@inheritDoc}
-     *
-     * @return {@inheritDoc}
-     * @throws IOException {@inheritDoc}
-     */
-    public DataWriter openList() throws IOException {
-        beforeValue();
-        stack.push(JsonLocation.EMPTY_LIST);
-        writer.write("[");
-        indent++;
-        return this;
-    }
-
-    /**
-     * {@inheritDoc}
-     *
-     * @return {@inheritDoc}
-     * @throws IOException {@inheritDoc}
-     */
-    public DataWriter closeList() throws IOException {
-        if (!stack.peek().isList())
-            throw new IllegalArgumentException("State is " + stack.peek() + ", expected " + JsonLocation.LIST + " or " + JsonLocation.EMPTY_LIST + "!");
-        indent--;
-        if (stack.peek() == JsonLocation.LIST) {
-            writeNewline();
-            writeIndent();
-        }
-        stack.pop();
-        writer.write("]");
-        return this;
-    }
-
-    /**
-     * {@inheritDoc}
-     *
-     * @param key {@inheritDoc}
-     * @return {@inheritDoc}
-     * @throws IOException {@inheritDoc}
-     */
-    public DataWriter key(String key) throws IOException {
-        beforeKey();
-        stack.push(JsonLocation.KEY);
-        return string(key);
-    }
-
-    /**
-     * {@inheritDoc}
-     *
-     * @param b {@inheritDoc}
-     * @return {@inheritDoc}
-     * @throws IOException {@inheritDoc}
+     * @throws IOException Propagated from the {@link Writer}.
      */
     @Override
-    public DataWriter value(boolean b) throws IOException {
-        beforeValue();
-        writer.write(String.valueOf(b));
-        return this;
+    public void flush() throws IOException {
+        flushBuffer();
+        writer.flush();
     }
 
-    /**
-     * {@inheritDoc}
-     *
-     * @param i {@inheritDoc}
-     * @return {@inheritDoc}
-     * @throws IOException {@inheritDoc}
-     */
     @Override
-    public DataWriter value(int i) throws IOException {
-        beforeValue();
-        writer.write(String.valueOf(i));
-        return this;
+    void flushBuffer() throws IOException {
+        if (position == 0) return;
+        writer.write(buffer, 0, position);
+        position = 0;
     }
 
-    /**
-     * {@inheritDoc}
-     *
-     * @param l {@inheritDoc}
-     * @return {@inheritDoc}
-     * @throws IOException {@inheritDoc}
-     */
     @Override
-    public DataWriter value(long l) throws IOException {
-        beforeValue();
-        writer.write(String.valueOf(l));
-        return this;
+    void append(char c) throws IOException {
+        if (position == buffer.length) flushBuffer();
+        buffer[position++] = c;
     }
 
-    /**
-     * {@inheritDoc}
-     *
-     * @param f {@inheritDoc}
-     * @return {@inheritDoc}
-     * @throws IOException {@inheritDoc}
-     */
     @Override
-    public DataWriter value(float f) throws IOException {
-        beforeValue();
-        boolean valid = Float.isFinite(f) && !Float.isNaN(f);
-        if (!valid) {
-            throw new IllegalArgumentException("float with value " + f + " is not valid in json!");
+    void appendAscii(char[] chars, int length) throws IOException {
+        int start = 0;
+        while (start < length) {
+            if (position == buffer.length) flushBuffer();
+            int count = Math.min(length - start, buffer.length - position);
+            System.arraycopy(chars, start, buffer, position, count);
+            position += count;
+            start += count;
         }
-        writer.write(String.valueOf(f).toLowerCase());
-        return this;
     }
 
-    /**
-     * {@inheritDoc}
-     *
-     * @param d {@inheritDoc}
-     * @return {@inheritDoc}
-     * @throws IOException {@inheritDoc}
-     */
     @Override
-    public DataWriter value(double d) throws IOException {
-        beforeValue();
-        boolean valid = Double.isFinite(d) && !Double.isNaN(d);
-        if (!valid) {
-            throw new IllegalArgumentException("double with value " + d + " is not valid in json!");
-        }
-        writer.write(String.valueOf(d).toLowerCase());
-        return this;
+    void appendLong(long l) throws IOException {
+        if (buffer.length - position < NumberFormatter.MAX_LENGTH) flushBuffer();
+        position = NumberFormatter.writeLong(l, buffer, position);
     }
 
     @Override
-    public DataWriter value(Number number) throws IOException {
-        try {
-            long l = number.longValue();
-            return value(l);
-        } catch (NumberFormatException e) {
-            double d = number.doubleValue();
-            return value(d);
-        }
-    }
-
-    /**
-     * {@inheritDoc}
-     *
-     * @param string {@inheritDoc}
-     * @return {@inheritDoc}
-     * @throws IOException {@inheritDoc}
-     */
-    public DataWriter value(String string) throws IOException {
-        if (string == null) return nullValue();
-        beforeValue();
-        return string(string);
+    void appendFloat(float f) throws IOException {
+        if (buffer.length - position < NumberFormatter.MAX_LENGTH) flushBuffer();
+        position = NumberFormatter.writeFloat(f, buffer, position);
     }
 
     @Override
-    public DataWriter nullValue() throws IOException {
-        beforeValue();
-        writer.write("null");
-        return this;
-    }
-
-    private JsonWriter string(String string) throws IOException {
-        writer.write("\"");
-        for (int i = 0; i < string.length(); i++) {
-            char c = string.charAt(i);
-            if (c < 93) {
-                String replacement = ESCAPES[c];
-                if (replacement == null) {
-                    writer.write(c);
-                } else {
-                    writer.write(replacement);
-                }
-            } else {
-                writer.write(c);
-            }
-        }
-        writer.write("\"");
-        return this;
+    void appendDouble(double d) throws IOException {
+        if (buffer.length - position < NumberFormatter.MAX_LENGTH) flushBuffer();
+        position = NumberFormatter.writeDouble(d, buffer, position);
     }
 
-    private void beforeValue() throws IOException {
-        switch (stack.peek()) {
-            case ROOT -> {
-                updateScope();
-            }
-            case LIST -> {
-                writer.write(comma);
-                writeNewline();
-                writeIndent();
-            }
-            case EMPTY_LIST -> {
-                writeNewline();
-                writeIndent();
-                updateScope();
-            }
-            case KEY -> {
-                stack.pop();
-                writer.write(colon);
-            }
-            case MAP, EMPTY_MAP, CLOSED->
-                    throw new IllegalArgumentException("State is " + stack.peek() + "!");
+    @Override
+    void append(String string, int start, int end) throws IOException {
+        while (start < end) {
+            if (position == buffer.length) flushBuffer();
+            int count = Math.min(end - start, buffer.length - position);
+            string.getChars(start, start + count, buffer, position);
+            position += count;
+            start += count;
         }
     }
 
-    private void beforeKey() throws IOException {
-        switch (stack.peek()) {
-            case MAP -> {
-                writer.write(comma);
-                writeNewline();
-                writeIndent();
-            }
-            case EMPTY_MAP -> {
-                writeNewline();
-                writeIndent();
-                updateScope();
+    @Override
+    void appendEscaped(String string) throws IOException {
+        int start = 0;
+        int length = string.length();
+        while (start < length) {
+            if (position == buffer.length) flushBuffer();
+            int count = Math.min(length - start, buffer.length - position);
+            string.getChars(start, start + count, buffer, position);
+            // the run is copied optimistically and cut at the first char that needs escaping
+            int end = position + count;
+            int i = position;
+            while (i < end && escape(buffer[i]) == null) i++;
+            start += i - position;
+            position = i;
+            if (i < end) {
+                String replacement = escape(buffer[i]);
+                append(replacement, 0, replacement.length());
+                start++;
             }
-            case KEY, LIST, EMPTY_LIST, ROOT, CLOSED ->
-                    throw new IllegalArgumentException("State is " + stack.peek() + ", expected " + JsonLocation.MAP + "!");
         }
     }
 
-    private void updateScope() {
-        if (stack.peek().isList()) {
-            stack.pop();
-            stack.push(JsonLocation.LIST);
-            return;
-        }
-        if (stack.peek().isMap()) {
-            stack.pop();
-            stack.push(JsonLocation.MAP);
-        }
-        if (stack.peek() == JsonLocation.ROOT) {
-            stack.pop();
-            stack.push(JsonLocation.CLOSED);
-        }
-    }
-
-    private void writeNewline() throws IOException {
-        writer.write(style.newline());
-    }
-
-    private void writeIndent() throws IOException {
-        if (!style.newline().isEmpty()) writer.write(style.indent().repeat(indent));
-    }
-
     /**
      * Configuration Class for {@link JsonWriter} behaviour
      */
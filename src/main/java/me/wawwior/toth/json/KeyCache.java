@@ -0,0 +1,60 @@
+package me.wawwior.toth.json;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bounded cache of map keys, so recurring keys are read as the same {@link String} instance.
+ * <p>
+ * The cache is direct-mapped: every key has exactly one slot, and a new key replaces whatever was there. Lookups take
+ * the {@link String#hashCode()} of the key, which readers compute while scanning it.
+ */
+final class KeyCache {
+
+    private final String[] keys;
+    private final int mask;
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    KeyCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.keys = new String[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the cached key equal to {@code chars[0, length)}, creating and caching it on a miss.
+     */
+    String intern(char[] chars, int length, int hash) {
+        int slot = slot(hash);
+        String key = keys[slot];
+        if (key != null && key.hashCode() == hash && key.length() == length) {
+            int i = 0;
+            while (i < length && key.charAt(i) == chars[i]) i++;
+            if (i == length) return key;
+        }
+        key = new String(chars, 0, length);
+        keys[slot] = key;
+        return key;
+    }
+
+    /**
+     * Returns the cached key equal to the ASCII bytes {@code buffer[start, start + length)}, or {@code null}.
+     */
+    String find(ByteBuffer buffer, int start, int length, int hash) {
+        String key = keys[slot(hash)];
+        if (key == null || key.hashCode() != hash || key.length() != length) return null;
+        for (int i = 0; i < length; i++) {
+            if (key.charAt(i) != buffer.get(start + i)) return null;
+        }
+        return key;
+    }
+
+    void put(String key) {
+        keys[slot(key.hashCode())] = key;
+    }
+
+    private int slot(int hash) {
+        return (hash ^ hash >>> 16) & mask;
+    }
+}
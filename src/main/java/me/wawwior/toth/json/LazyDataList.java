@@ -0,0 +1,124 @@
+package me.wawwior.toth.json;
+
+import me.wawwior.toth.DataWriter;
+import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.data.DataList;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * A {@link DataList} view of a list on a {@link JsonTape}.
+ * <p>
+ * Elements are decoded when they are first accessed and kept from then on. The first modification copies all elements
+ * into the list itself, from then on it behaves like any other {@link DataList}.
+ */
+public final class LazyDataList extends DataList {
+
+    private final JsonTape tape;
+    private final int entry;
+
+    /**
+     * Tape entries of the elements, only indexed on the first access by position.
+     */
+    private int[] entries;
+
+    /**
+     * Decoded elements, {@code null} once they are copied.
+     */
+    private DataElement[] elements;
+
+    LazyDataList(JsonTape tape, int entry) {
+        this.tape = tape;
+        this.entry = entry;
+        this.elements = new DataElement[tape.count(entry)];
+    }
+
+    @Override
+    public Optional<DataElement> get(int index) {
+        if (elements == null) return super.get(index);
+        if (index < 0 || index >= elements.length) return Optional.empty();
+        return Optional.of(element(index));
+    }
+
+    private DataElement element(int index) {
+        if (elements[index] == null) {
+            if (entries == null) {
+                entries = new int[elements.length];
+                for (int i = 0, e = entry + 1; i < entries.length; i++, e = tape.next(e)) entries[i] = e;
+            }
+            elements[index] = tape.element(entries[index]);
+        }
+        return elements[index];
+    }
+
+    @Override
+    public int size() {
+        return elements == null ? super.size() : elements.length;
+    }
+
+    @Override
+    public void set(int index, DataElement element) {
+        copyElements();
+        super.set(index, element);
+    }
+
+    @Override
+    public void add(DataElement element) {
+        copyElements();
+        super.add(element);
+    }
+
+    @Override
+    public void remove(int index) {
+        copyElements();
+        super.remove(index);
+    }
+
+    private void copyElements() {
+        if (elements == null) return;
+        for (int i = 0; i < elements.length; i++) super.add(element(i));
+        elements = null;
+        entries = null;
+    }
+
+    @Override
+    public Iterator<DataElement> iterator() {
+        if (elements == null) return super.iterator();
+        DataElement[] decoded = elements;
+        return new Iterator<>() {
+            private int index = 0;
+            private int next = entry + 1;
+
+            @Override
+            public boolean hasNext() {
+                return index < decoded.length;
+            }
+
+            @Override
+            public DataElement next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                if (decoded[index] == null) decoded[index] = tape.element(next);
+                next = tape.next(next);
+                return decoded[index++];
+            }
+        };
+    }
+
+    @Override
+    public void write(DataWriter writer) throws IOException {
+        if (elements == null) {
+            super.write(writer);
+            return;
+        }
+        writer.openList();
+        for (int i = 0, e = entry + 1; i < elements.length; i++, e = tape.next(e)) {
+            // elements that weren't accessed are decoded for writing only
+            DataElement element = elements[i] != null ? elements[i] : tape.element(e);
+            element.write(writer);
+        }
+        writer.closeList();
+    }
+}
@@ -0,0 +1,196 @@
+package me.wawwior.toth.json;
+
+import me.wawwior.toth.DataWriter;
+import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.data.DataMap;
+import me.wawwior.toth.data.KeyIndex;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link DataMap} view of a map on a {@link JsonTape}.
+ * <p>
+ * Lookups compare keys in place and only decode the value that is found. Larger maps decode their keys once, on the
+ * first lookup, into a hash index. Values are kept once decoded, so repeated lookups return the same instance. The
+ * first modification copies all entries into the map itself, from then on it behaves like any other {@link DataMap}.
+ * <p>
+ * Duplicate keys resolve to their last value, like they would when read into a {@link DataMap}. Until the entries are
+ * copied however, they are written out as they appear on the tape.
+ */
+public final class LazyDataMap extends DataMap {
+
+    /**
+     * Maps with more entries than this are looked up through {@link #index}.
+     */
+    private static final int LINEAR_THRESHOLD = 8;
+
+    private final JsonTape tape;
+    private final int entry;
+
+    /**
+     * The key being looked up, reused so a lookup doesn't allocate.
+     */
+    private final String[] probe = new String[1];
+
+    /**
+     * Decoded values by their position in the map, {@code null} once the entries are copied.
+     */
+    private DataElement[] values;
+
+    /**
+     * Open-addressing slots holding an entry position + 1, or 0 if empty. {@code null} until the first lookup in a
+     * large map, along with the decoded keys and the tape entries of the values.
+     */
+    private int[] index;
+    private String[] entryKeys;
+    private int[] valueEntries;
+
+    LazyDataMap(JsonTape tape, int entry) {
+        this.tape = tape;
+        this.entry = entry;
+        this.values = new DataElement[tape.count(entry)];
+    }
+
+    @Override
+    public Optional<DataElement> get(String key) {
+        if (values == null) return super.get(key);
+        if (key == null) return Optional.empty();
+
+        if (values.length > LINEAR_THRESHOLD) return indexedGet(key);
+
+        probe[0] = key;
+        int found = -1;
+        int foundEntry = -1;
+        int end = tape.next(entry);
+        // a later duplicate replaces an earlier one, like it would with put
+        for (int i = 0, e = entry + 1; e < end; i++, e = tape.next(e + 1)) {
+            if (tape.matchKey(e, probe) == 0) {
+                found = i;
+                foundEntry = e + 1;
+            }
+        }
+        probe[0] = null;
+        if (found < 0) return Optional.empty();
+        return Optional.of(value(found, foundEntry));
+    }
+
+    private Optional<DataElement> indexedGet(String key) {
+        if (index == null) buildIndex();
+        int mask = index.length - 1;
+        for (int slot = hash(key) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int i = index[slot] - 1;
+            if (entryKeys[i].equals(key)) return Optional.of(value(i, valueEntries[i]));
+        }
+        return Optional.empty();
+    }
+
+    private void buildIndex() {
+        int size = values.length;
+        entryKeys = new String[size];
+        valueEntries = new int[size];
+        index = new int[Integer.highestOneBit(size * 4 - 1)];
+        int mask = index.length - 1;
+        int end = tape.next(entry);
+        for (int i = 0, e = entry + 1; e < end; i++, e = tape.next(e + 1)) {
+            entryKeys[i] = tape.key(e);
+            valueEntries[i] = e + 1;
+            int slot = hash(entryKeys[i]) & mask;
+            // a later duplicate replaces an earlier one, like it would with put
+            while (index[slot] != 0 && !entryKeys[index[slot] - 1].equals(entryKeys[i])) slot = (slot + 1) & mask;
+            index[slot] = i + 1;
+        }
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private DataElement value(int i, int valueEntry) {
+        if (values[i] == null) values[i] = tape.element(valueEntry);
+        return values[i];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Until the entries are copied, duplicate keys are visited once for each of their values, the last one last.
+     *
+     * @param action {@inheritDoc}
+     */
+    @Override
+    public void forEach(BiConsumer<String, DataElement> action) {
+        if (values == null) {
+            super.forEach(action);
+            return;
+        }
+        int end = tape.next(entry);
+        for (int i = 0, e = entry + 1; e < end; i++, e = tape.next(e + 1)) {
+            action.accept(tape.key(e), value(i, e + 1));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Until the entries are copied, keys are compared on the tape in place, and only the values of matching entries
+     * are decoded. Duplicate keys resolve to their last value.
+     *
+     * @param keys   {@inheritDoc}
+     * @param values {@inheritDoc}
+     */
+    @Override
+    public void getAll(KeyIndex keys, DataElement[] values) {
+        if (this.values == null) {
+            super.getAll(keys, values);
+            return;
+        }
+        String[] candidates = keys.keys();
+        int end = tape.next(entry);
+        for (int i = 0, e = entry + 1; e < end; i++, e = tape.next(e + 1)) {
+            int k = tape.matchKey(e, candidates);
+            if (k >= 0) values[k] = value(i, e + 1);
+        }
+    }
+
+    @Override
+    public void put(String key, DataElement element) {
+        copyEntries();
+        super.put(key, element);
+    }
+
+    @Override
+    public void remove(String key) {
+        copyEntries();
+        super.remove(key);
+    }
+
+    private void copyEntries() {
+        if (values == null) return;
+        int end = tape.next(entry);
+        for (int i = 0, e = entry + 1; e < end; i++, e = tape.next(e + 1)) {
+            super.put(tape.key(e), value(i, e + 1));
+        }
+        values = null;
+        index = null;
+        entryKeys = null;
+        valueEntries = null;
+    }
+
+    @Override
+    public void writeEntries(DataWriter writer) throws IOException {
+        if (values == null) {
+            super.writeEntries(writer);
+            return;
+        }
+        int end = tape.next(entry);
+        for (int i = 0, e = entry + 1; e < end; i++, e = tape.next(e + 1)) {
+            writer.key(tape.key(e));
+            // values that weren't looked up are decoded for writing only
+            DataElement value = values[i] != null ? values[i] : tape.element(e + 1);
+            value.write(writer);
+        }
+    }
+}
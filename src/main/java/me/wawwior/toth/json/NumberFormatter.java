@@ -0,0 +1,380 @@
+package me.wawwior.toth.json;
+
+import java.math.BigInteger;
+
+/**
+ * Formats numbers into a {@code char[]} without allocating.
+ * <p>
+ * Integers are written two digits at a time. Floating point values are converted with Giulietti's Schubfach algorithm
+ * to the shortest decimal that parses back to the same value, and laid out like {@link Double#toString(double)}, but
+ * with a lowercase exponent.
+ */
+final class NumberFormatter {
+
+    private NumberFormatter() {}
+
+    /**
+     * Enough space for any formatted {@code long}, {@code float} or {@code double}.
+     */
+    static final int MAX_LENGTH = 32;
+
+    private static final char[] DIGIT_PAIRS = new char[200];
+
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+
+    /**
+     * {@code floor(10^-k * 2^-r) + 1} for every {@code k} in {@code [K_MIN, K_MAX]}, with {@code r} chosen so the
+     * value has 126 bits. The upper and lower 63 bits are interleaved.
+     */
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) * 2];
+
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final long MASK_32 = (1L << 32) - 1;
+
+    private static final int DOUBLE_P = 53;
+    private static final int DOUBLE_Q_MIN = -1074;
+    private static final long DOUBLE_C_MIN = 1L << 52;
+    private static final int DOUBLE_C_TINY = 3;
+
+    private static final int FLOAT_P = 24;
+    private static final int FLOAT_Q_MIN = -149;
+    private static final int FLOAT_C_MIN = 1 << 23;
+    private static final int FLOAT_C_TINY = 8;
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[i * 2] = (char) ('0' + i / 10);
+            DIGIT_PAIRS[i * 2 + 1] = (char) ('0' + i % 10);
+        }
+
+        BigInteger mask = BigInteger.valueOf(MASK_63);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            BigInteger g;
+            if (k <= 0) {
+                BigInteger power = BigInteger.TEN.pow(-k);
+                int shift = power.bitLength() - 126;
+                g = shift > 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            } else {
+                BigInteger power = BigInteger.TEN.pow(k);
+                g = BigInteger.ONE.shiftLeft(power.bitLength() + 125).divide(power);
+            }
+            g = g.add(BigInteger.ONE);
+            int index = (k - K_MIN) * 2;
+            G[index] = g.shiftRight(63).longValue();
+            G[index + 1] = g.and(mask).longValue();
+        }
+    }
+
+    /**
+     * @return the position after the last written char
+     */
+    static int writeLong(long l, char[] chars, int position) {
+        if (l < 0) {
+            chars[position++] = '-';
+        } else {
+            // digits are produced from negative values, so Long.MIN_VALUE needs no special case
+            l = -l;
+        }
+        int end = position + digitCount(l);
+        writeDigits(l, chars, end);
+        return end;
+    }
+
+    /**
+     * @param d a finite double
+     * @return the position after the last written char
+     */
+    static int writeDouble(double d, char[] chars, int position) {
+        long bits = Double.doubleToRawLongBits(d);
+        if (bits < 0) chars[position++] = '-';
+
+        long t = bits & DOUBLE_C_MIN - 1;
+        int bq = (int) (bits >>> 52) & 0x7FF;
+        if (bq != 0) {
+            int mq = -DOUBLE_Q_MIN + 1 - bq;
+            long c = DOUBLE_C_MIN | t;
+            // integers are exact already
+            if (0 < mq && mq < DOUBLE_P) {
+                long f = c >> mq;
+                if (f << mq == c) return writeDecimal(f, 0, chars, position);
+            }
+            return toDecimal(-mq, c, 0, chars, position);
+        }
+        if (t != 0) {
+            // subnormals with fewer than 2 significant digits are scaled up
+            return t < DOUBLE_C_TINY
+                    ? toDecimal(DOUBLE_Q_MIN, 10 * t, -1, chars, position)
+                    : toDecimal(DOUBLE_Q_MIN, t, 0, chars, position);
+        }
+        return writeZero(chars, position);
+    }
+
+    /**
+     * @param f a finite float
+     * @return the position after the last written char
+     */
+    static int writeFloat(float f, char[] chars, int position) {
+        int bits = Float.floatToRawIntBits(f);
+        if (bits < 0) chars[position++] = '-';
+
+        int t = bits & FLOAT_C_MIN - 1;
+        int bq = (bits >>> 23) & 0xFF;
+        if (bq != 0) {
+            int mq = -FLOAT_Q_MIN + 1 - bq;
+            int c = FLOAT_C_MIN | t;
+            if (0 < mq && mq < FLOAT_P) {
+                int i = c >> mq;
+                if (i << mq == c) return writeDecimal(i, 0, chars, position);
+            }
+            return toDecimal(-mq, c, 0, chars, position);
+        }
+        if (t != 0) {
+            return t < FLOAT_C_TINY
+                    ? toDecimal(FLOAT_Q_MIN, 10 * t, -1, chars, position)
+                    : toDecimal(FLOAT_Q_MIN, t, 0, chars, position);
+        }
+        return writeZero(chars, position);
+    }
+
+    /**
+     * Checks whether {@code significand * 10^exponent10} is what {@link #writeDouble(double, char[], int)} writes for
+     * {@code d}, ignoring trailing zeros, so the double holds that decimal without losing any digits.
+     *
+     * @param d       a finite, non-negative double
+     * @param scratch at least {@link #MAX_LENGTH} chars to format {@code d} into
+     */
+    static boolean isShortest(double d, long significand, int exponent10, char[] scratch) {
+        if (significand == 0) return d == 0;
+        // above Long.MAX_VALUE as an unsigned long, so 19 digits, more than any shortest decimal has
+        if (significand < 0) return false;
+        while (significand % 10 == 0) {
+            significand /= 10;
+            exponent10++;
+        }
+        int end = writeDouble(d, scratch, 0);
+        long f = 0;
+        int e = 0;
+        boolean fraction = false;
+        int i = 0;
+        for (; i < end; i++) {
+            char c = scratch[i];
+            if (c == '.') {
+                fraction = true;
+            } else if (c == 'e') {
+                break;
+            } else {
+                f = f * 10 + c - '0';
+                if (fraction) e--;
+            }
+        }
+        if (i < end) {
+            boolean negative = scratch[++i] == '-';
+            if (negative) i++;
+            int exponent = 0;
+            for (; i < end; i++) exponent = exponent * 10 + scratch[i] - '0';
+            e += negative ? -exponent : exponent;
+        }
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        return f == significand && e == exponent10;
+    }
+
+    /**
+     * Finds the shortest decimal in the rounding interval of {@code c * 2^q}, preferring the closest one.
+     */
+    private static int toDecimal(int q, long c, int dk, char[] chars, int position) {
+        int out = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        // the interval is asymmetric at powers of two
+        if (c != DOUBLE_C_MIN || q == DOUBLE_Q_MIN) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        int h = q + floorLog2Pow10(-k) + 2;
+
+        int index = (k - K_MIN) * 2;
+        long g1 = G[index];
+        long g0 = G[index + 1];
+
+        long vb = roundToOdd(g1, g0, cb << h);
+        long vbl = roundToOdd(g1, g0, cbl << h);
+        long vbr = roundToOdd(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            long sp10 = s / 10 * 10;
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) return writeDecimal(upin ? sp10 : tp10, k, chars, position);
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) return writeDecimal(uin ? s : t, k + dk, chars, position);
+        long cmp = vb - (s + t << 1);
+        return writeDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, chars, position);
+    }
+
+    /**
+     * @see #toDecimal(int, long, int, char[], int)
+     */
+    private static int toDecimal(int q, int c, int dk, char[] chars, int position) {
+        int out = c & 1;
+        long cb = (long) c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != FLOAT_C_MIN || q == FLOAT_Q_MIN) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        int h = q + floorLog2Pow10(-k) + 33;
+
+        long g = G[(k - K_MIN) * 2] + 1;
+
+        int vb = roundToOdd(g, cb << h);
+        int vbl = roundToOdd(g, cbl << h);
+        int vbr = roundToOdd(g, cbr << h);
+
+        int s = vb >> 2;
+        if (s >= 100) {
+            int sp10 = s / 10 * 10;
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) return writeDecimal(upin ? sp10 : tp10, k, chars, position);
+        }
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) return writeDecimal(uin ? s : t, k + dk, chars, position);
+        int cmp = vb - (s + t << 1);
+        return writeDecimal(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, chars, position);
+    }
+
+    private static long roundToOdd(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    private static int roundToOdd(long g, long cp) {
+        long x1 = Math.multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    private static int floorLog10Pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    private static int floorLog10ThreeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    private static int floorLog2Pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * Lays out {@code f * 10^e} like {@link Double#toString(double)}: plain for magnitudes in {@code [10^-3, 10^7)},
+     * in scientific notation otherwise.
+     */
+    private static int writeDecimal(long f, int e, char[] chars, int position) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int length = digitCount(-f);
+        // the value is 0.d1d2...dn * 10^exponent
+        int exponent = e + length;
+
+        if (0 < exponent && exponent <= 7) {
+            if (length <= exponent) {
+                int end = position + length;
+                writeDigits(-f, chars, end);
+                for (int i = length; i < exponent; i++) chars[end++] = '0';
+                chars[end++] = '.';
+                chars[end++] = '0';
+                return end;
+            }
+            int end = position + length + 1;
+            writeDigits(-f, chars, end);
+            // move the integer part left to make space for the point
+            System.arraycopy(chars, position + 1, chars, position, exponent);
+            chars[position + exponent] = '.';
+            return end;
+        }
+        if (-3 < exponent && exponent <= 0) {
+            chars[position++] = '0';
+            chars[position++] = '.';
+            for (int i = exponent; i < 0; i++) chars[position++] = '0';
+            int end = position + length;
+            writeDigits(-f, chars, end);
+            return end;
+        }
+        int end = position + length + 1;
+        writeDigits(-f, chars, end);
+        chars[position] = chars[position + 1];
+        chars[position + 1] = '.';
+        if (length == 1) chars[end++] = '0';
+        chars[end++] = 'e';
+        return writeLong(exponent - 1, chars, end);
+    }
+
+    private static int writeZero(char[] chars, int position) {
+        chars[position++] = '0';
+        chars[position++] = '.';
+        chars[position++] = '0';
+        return position;
+    }
+
+    /**
+     * Writes the digits of {@code -n} so they end right before {@code end}.
+     */
+    private static void writeDigits(long n, char[] chars, int end) {
+        while (n <= -100) {
+            long q = n / 100;
+            int r = (int) (q * 100 - n);
+            end -= 2;
+            chars[end] = DIGIT_PAIRS[r * 2];
+            chars[end + 1] = DIGIT_PAIRS[r * 2 + 1];
+            n = q;
+        }
+        int r = (int) -n;
+        if (r >= 10) {
+            chars[end - 2] = DIGIT_PAIRS[r * 2];
+            chars[end - 1] = DIGIT_PAIRS[r * 2 + 1];
+        } else {
+            chars[end - 1] = (char) ('0' + r);
+        }
+    }
+
+    /**
+     * @return the number of digits of {@code -n}
+     */
+    private static int digitCount(long n) {
+        long p = -10;
+        for (int i = 1; i < 19; i++) {
+            if (n > p) return i;
+            p *= 10;
+        }
+        return 19;
+    }
+}
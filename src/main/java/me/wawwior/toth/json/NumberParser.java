@@ -0,0 +1,157 @@
+package me.wawwior.toth.json;
+
+import java.math.BigInteger;
+
+/**
+ * Converts a decimal {@code significand * 10^exponent10} to the nearest {@code double} or {@code float}.
+ * <p>
+ * Small values take Clinger's fast path, everything else goes through the Eisel-Lemire algorithm. Both are exact;
+ * in the rare cases Eisel-Lemire cannot decide, {@link Double#NaN} or {@link Float#NaN} is returned and the caller has
+ * to fall back to {@link Double#parseDouble(String)}.
+ */
+final class NumberParser {
+
+    private NumberParser() {}
+
+    private static final int MIN_EXPONENT = -348;
+    private static final int MAX_EXPONENT = 347;
+
+    /**
+     * 128-bit mantissas of {@code 10^e} for every {@code e} in {@code [MIN_EXPONENT, MAX_EXPONENT]}, rounded down and
+     * normalized so the highest bit is set. High and low halves are interleaved.
+     */
+    private static final long[] POWERS_OF_TEN = new long[(MAX_EXPONENT - MIN_EXPONENT + 1) * 2];
+
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    static {
+        BigInteger five = BigInteger.valueOf(5);
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int e = MIN_EXPONENT; e <= MAX_EXPONENT; e++) {
+            BigInteger mantissa;
+            if (e >= 0) {
+                BigInteger power = five.pow(e);
+                int shift = power.bitLength() - 128;
+                mantissa = shift > 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            } else {
+                BigInteger power = five.pow(-e);
+                mantissa = BigInteger.ONE.shiftLeft(power.bitLength() + 127).divide(power);
+            }
+            int index = (e - MIN_EXPONENT) * 2;
+            POWERS_OF_TEN[index] = mantissa.shiftRight(64).longValue();
+            POWERS_OF_TEN[index + 1] = mantissa.and(mask).longValue();
+        }
+    }
+
+    /**
+     * @param significand unsigned decimal significand of at most 19 digits
+     * @param exponent10  decimal exponent
+     * @param negative    sign of the number
+     * @param truncated   if non-zero digits were dropped from the significand
+     * @return the nearest double, or {@link Double#NaN} if it couldn't be determined
+     */
+    static double toDouble(long significand, int exponent10, boolean negative, boolean truncated) {
+        if (significand == 0) return negative ? -0.0 : 0.0;
+        if (!truncated) {
+            if (0 < significand && significand <= 1L << 53 && -22 <= exponent10 && exponent10 <= 22) {
+                double d = significand;
+                d = exponent10 < 0 ? d / DOUBLE_POWERS_OF_TEN[-exponent10] : d * DOUBLE_POWERS_OF_TEN[exponent10];
+                return negative ? -d : d;
+            }
+            return eiselLemire(significand, exponent10, negative, 52, 1023, 0x7FF);
+        }
+        // the dropped digits put the value somewhere between these two
+        double lower = eiselLemire(significand, exponent10, negative, 52, 1023, 0x7FF);
+        double upper = eiselLemire(significand + 1, exponent10, negative, 52, 1023, 0x7FF);
+        return lower == upper ? lower : Double.NaN;
+    }
+
+    /**
+     * @see #toDouble(long, int, boolean, boolean)
+     */
+    static float toFloat(long significand, int exponent10, boolean negative, boolean truncated) {
+        if (significand == 0) return negative ? -0.0f : 0.0f;
+        if (!truncated) {
+            if (0 < significand && significand <= 1L << 24 && -10 <= exponent10 && exponent10 <= 10) {
+                float f = significand;
+                f = exponent10 < 0 ? f / FLOAT_POWERS_OF_TEN[-exponent10] : f * FLOAT_POWERS_OF_TEN[exponent10];
+                return negative ? -f : f;
+            }
+            return (float) eiselLemire(significand, exponent10, negative, 23, 127, 0xFF);
+        }
+        double lower = eiselLemire(significand, exponent10, negative, 23, 127, 0xFF);
+        double upper = eiselLemire(significand + 1, exponent10, negative, 23, 127, 0xFF);
+        return lower == upper ? (float) lower : Float.NaN;
+    }
+
+    /**
+     * Eisel-Lemire for a binary format with {@code mantissaBits} explicit mantissa bits. The result is exactly
+     * representable in that format; it is returned as a double so one implementation serves both.
+     */
+    private static double eiselLemire(long significand, int exponent10, boolean negative, int mantissaBits, int bias, int maxExponent) {
+        if (exponent10 < MIN_EXPONENT || MAX_EXPONENT < exponent10) return Double.NaN;
+
+        int index = (exponent10 - MIN_EXPONENT) * 2;
+        int clz = Long.numberOfLeadingZeros(significand);
+        long man = significand << clz;
+        long exponent2 = (217706L * exponent10 >> 16) + 64 + bias - clz;
+
+        // bits below the result mantissa and the rounding bit
+        int shift = 63 - mantissaBits - 2;
+        long lowMask = (1L << shift) - 1;
+
+        long high = multiplyHighUnsigned(man, POWERS_OF_TEN[index]);
+        long low = man * POWERS_OF_TEN[index];
+
+        if ((high & lowMask) == lowMask && Long.compareUnsigned(low + man, man) < 0) {
+            long wideHigh = multiplyHighUnsigned(man, POWERS_OF_TEN[index + 1]);
+            long wideLow = man * POWERS_OF_TEN[index + 1];
+            long mergedHigh = high;
+            long mergedLow = low + wideHigh;
+            if (Long.compareUnsigned(mergedLow, low) < 0) mergedHigh++;
+            if ((mergedHigh & lowMask) == lowMask && mergedLow == -1 && Long.compareUnsigned(wideLow + man, man) < 0) {
+                return Double.NaN;
+            }
+            high = mergedHigh;
+            low = mergedLow;
+        }
+
+        long msb = high >>> 63;
+        long mantissa = high >>> (msb + shift);
+        exponent2 -= 1 ^ msb;
+
+        // exactly halfway between two values, the truncated table can't tell which way to round
+        if (low == 0 && (high & lowMask) == 0 && (mantissa & 3) == 1) return Double.NaN;
+
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >>> (mantissaBits + 1) > 0) {
+            mantissa >>>= 1;
+            exponent2++;
+        }
+
+        // subnormal results and overflow are left to the fallback
+        if (exponent2 <= 0 || exponent2 >= maxExponent) return Double.NaN;
+
+        long mantissaMask = (1L << mantissaBits) - 1;
+        if (mantissaBits == 52) {
+            long bits = exponent2 << 52 | mantissa & mantissaMask;
+            if (negative) bits |= Long.MIN_VALUE;
+            return Double.longBitsToDouble(bits);
+        }
+        int bits = (int) (exponent2 << mantissaBits | mantissa & mantissaMask);
+        if (negative) bits |= Integer.MIN_VALUE;
+        return Float.intBitsToFloat(bits);
+    }
+
+    private static long multiplyHighUnsigned(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+}
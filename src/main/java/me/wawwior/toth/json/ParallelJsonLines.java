@@ -0,0 +1,211 @@
+package me.wawwior.toth.json;
+
+import me.wawwior.toth.codec.Result;
+import me.wawwior.toth.codec.StreamDecoder;
+import me.wawwior.toth.util.Streams;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Decodes the records of a JSON Lines file on several threads.
+ * <p>
+ * The file is memory-mapped in chunks that end at a line break, and every chunk is decoded by its own
+ * {@link Utf8JsonReader} on the executor. Only a bounded number of chunks is mapped and decoded ahead of the consumer
+ * of the stream, so memory use doesn't depend on the size of the file.
+ * <p>
+ * Records have to be separated by line breaks and may not contain any line break themselves, not even as whitespace,
+ * since chunks are split at every {@code '\n'}. Line breaks within strings have to be escaped anyway.
+ */
+public final class ParallelJsonLines {
+
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private ParallelJsonLines() {}
+
+    /**
+     * Decodes a file on the common {@link ForkJoinPool}, with chunks of 1 MiB and two chunks in flight per processor.
+     *
+     * @param path    the UTF-8 encoded JSON Lines file
+     * @param decoder the decoder of each record, which must be safe to use from several threads at once
+     * @param ordered whether results are in input order, or in the order they are ready
+     * @param <T>     the type of the records
+     * @return a sequential stream of the results
+     * @throws IOException If the file cannot be opened.
+     * @see #decode(Path, StreamDecoder, boolean, Executor, int, int)
+     */
+    public static <T> Stream<Result<T, String>> decode(Path path, StreamDecoder<T> decoder, boolean ordered) throws IOException {
+        return decode(path, decoder, ordered, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, 2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Decodes the records of a file as the returned stream is consumed.
+     * <p>
+     * Unordered results are handed out chunk by chunk in the order the chunks finish, the records of a chunk are still
+     * in input order. The stream holds the file open until it is closed. An {@link IOException} of the input is thrown
+     * as an {@link UncheckedIOException}.
+     *
+     * @param path        the UTF-8 encoded JSON Lines file
+     * @param decoder     the decoder of each record, which must be safe to use from several threads at once
+     * @param ordered     whether results are in input order, or in the order they are ready
+     * @param executor    runs the decoding of the chunks, e.g. a pool of virtual threads
+     * @param chunkSize   bytes per chunk, chunks are extended to fit records that are larger
+     * @param maxInFlight number of chunks decoded ahead of the consumer
+     * @param <T>         the type of the records
+     * @return a sequential stream of the results
+     * @throws IOException If the file cannot be opened.
+     */
+    public static <T> Stream<Result<T, String>> decode(
+            Path path,
+            StreamDecoder<T> decoder,
+            boolean ordered,
+            Executor executor,
+            int chunkSize,
+            int maxInFlight
+    ) throws IOException {
+        if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size must be positive!");
+        if (maxInFlight <= 0) throw new IllegalArgumentException("Chunks in flight must be positive!");
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        Chunks<T> chunks = new Chunks<>(channel, decoder, ordered, executor, chunkSize, maxInFlight);
+        return Streams.iteratorToFiniteStream(chunks, false).onClose(() -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Maps the next chunks while there is room in flight and hands out the results of finished ones.
+     */
+    private static final class Chunks<T> implements Iterator<Result<T, String>> {
+
+        private final FileChannel channel;
+        private final StreamDecoder<T> decoder;
+        private final boolean ordered;
+        private final Executor executor;
+        private final int chunkSize;
+        private final int maxInFlight;
+
+        private final long size;
+        private long position = 0;
+
+        /**
+         * Chunks being decoded, in input order.
+         */
+        private final List<CompletableFuture<List<Result<T, String>>>> inFlight = new ArrayList<>();
+        private Iterator<Result<T, String>> current = Collections.emptyIterator();
+
+        private Chunks(FileChannel channel, StreamDecoder<T> decoder, boolean ordered, Executor executor, int chunkSize, int maxInFlight) throws IOException {
+            this.channel = channel;
+            this.decoder = decoder;
+            this.ordered = ordered;
+            this.executor = executor;
+            this.chunkSize = chunkSize;
+            this.maxInFlight = maxInFlight;
+            this.size = channel.size();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                fill();
+                if (inFlight.isEmpty()) return false;
+                current = take().iterator();
+                // keeps the executor busy while the consumer works through this chunk
+                fill();
+            }
+            return true;
+        }
+
+        @Override
+        public Result<T, String> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return current.next();
+        }
+
+        private void fill() {
+            while (inFlight.size() < maxInFlight && position < size) {
+                ByteBuffer chunk;
+                try {
+                    chunk = nextChunk();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                inFlight.add(CompletableFuture.supplyAsync(() -> decodeChunk(chunk), executor));
+            }
+        }
+
+        /**
+         * Maps the bytes from the current position up to the last line break within the chunk size.
+         */
+        private ByteBuffer nextChunk() throws IOException {
+            long length = Math.min(chunkSize, size - position);
+            while (true) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = (int) length;
+                if (position + length < size) {
+                    end = lastLineBreak(buffer) + 1;
+                    if (end == 0) {
+                        // a single record is larger than the chunk
+                        if (length == Integer.MAX_VALUE) throw new IOException("Record at byte " + position + " is too large!");
+                        length = Math.min(Math.min(length * 2, Integer.MAX_VALUE), size - position);
+                        continue;
+                    }
+                }
+                position += end;
+                return buffer.slice(0, end);
+            }
+        }
+
+        private static int lastLineBreak(ByteBuffer buffer) {
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') return i;
+            }
+            return -1;
+        }
+
+        private List<Result<T, String>> decodeChunk(ByteBuffer chunk) {
+            JsonLinesReader lines = new JsonLinesReader(new Utf8JsonReader(chunk));
+            List<Result<T, String>> results = new ArrayList<>();
+            try {
+                while (lines.next()) results.add(decoder.read(lines.reader()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return results;
+        }
+
+        /**
+         * Waits for the first chunk, or for any chunk if unordered, and removes it from the chunks in flight.
+         */
+        private List<Result<T, String>> take() {
+            try {
+                if (ordered) return inFlight.remove(0).join();
+                CompletableFuture.anyOf(inFlight.toArray(CompletableFuture[]::new)).join();
+                for (int i = 0; i < inFlight.size(); i++) {
+                    if (inFlight.get(i).isDone()) return inFlight.remove(i).join();
+                }
+                throw new IllegalStateException("No chunk is done!");
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw e;
+            }
+        }
+    }
+}
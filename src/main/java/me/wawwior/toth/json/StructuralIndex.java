@@ -0,0 +1,100 @@
+package me.wawwior.toth.json;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The positions of the structural bytes of an input, found in a single pass before it is read.
+ * <p>
+ * Positions are recorded in order for brackets, colons and commas outside of strings, for the quotes that open and
+ * close each string and the backslashes of its escapes, and for the first byte of every other token. Outside of
+ * strings, the bytes between two positions are therefore whitespace or the rest of a literal or number.
+ * <p>
+ * Every block of 64 bytes is classified into bitmaps first. Only quotes and backslashes are then visited one by one,
+ * to find the strings they open and close. Unlike the prefix-XOR of simdjson, this also handles strings in
+ * apostrophes.
+ */
+final class StructuralIndex {
+
+    private final int limit;
+
+    private int[] positions = new int[256];
+    private int count;
+
+    /**
+     * The first position not passed by {@link #next(int)} yet.
+     */
+    private int cursor;
+
+    /**
+     * Indexes the bytes of {@code buffer} from {@code start} up to {@code limit}.
+     */
+    StructuralIndex(ByteBuffer buffer, int start, int limit, ByteClassifier classifier) {
+        this.limit = limit;
+        // the quote of the open string, 0 outside of strings
+        int quote = 0;
+        // the position of the byte escaped by the last backslash
+        int escaped = -1;
+        // whether the last byte of the previous block was part of a literal or number
+        long plainCarry = 0;
+        long[] bitmaps = new long[3];
+        for (int offset = start; offset < limit; offset += ByteClassifier.BLOCK_SIZE) {
+            classifier.classify(buffer, offset, limit, bitmaps);
+            long whitespace = bitmaps[ByteClassifier.WHITESPACE];
+            long quotes = bitmaps[ByteClassifier.QUOTES];
+            long structural = bitmaps[ByteClassifier.STRUCTURAL];
+            int length = Math.min(limit - offset, ByteClassifier.BLOCK_SIZE);
+            long valid = length == ByteClassifier.BLOCK_SIZE ? -1L : (1L << length) - 1;
+
+            // every byte of a string including its quotes, and the quotes and escapes that matter
+            long strings = 0;
+            long events = 0;
+            int open = 0;
+            for (long bits = quotes; bits != 0; bits &= bits - 1) {
+                int i = Long.numberOfTrailingZeros(bits);
+                if (offset + i == escaped) continue;
+                int b = buffer.get(offset + i);
+                if (quote == 0) {
+                    // a backslash outside of strings is left for the reader to reject
+                    if (b == '\\') continue;
+                    quote = b;
+                    open = i;
+                    events |= 1L << i;
+                } else if (b == '\\') {
+                    escaped = offset + i + 1;
+                    events |= 1L << i;
+                } else if (b == quote) {
+                    quote = 0;
+                    strings |= -1L << open & -1L >>> 63 - i;
+                    events |= 1L << i;
+                }
+            }
+            if (quote != 0) strings |= -1L << open;
+
+            long plain = ~(whitespace | structural | strings) & valid;
+            long starts = plain & ~(plain << 1 | plainCarry);
+            plainCarry = plain >>> 63;
+            add(structural & ~strings | events | starts, offset);
+        }
+    }
+
+    private void add(long bits, int offset) {
+        int needed = count + Long.bitCount(bits);
+        if (needed > positions.length) positions = Arrays.copyOf(positions, Math.max(needed, positions.length * 2));
+        for (; bits != 0; bits &= bits - 1) positions[count++] = offset + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Steps forward to the next position. Stepping back, e.g. after a seek, falls back to a binary search.
+     *
+     * @return the first indexed position at or after {@code from}, or the limit
+     */
+    int next(int from) {
+        if (cursor > 0 && positions[cursor - 1] >= from) {
+            int i = Arrays.binarySearch(positions, 0, count, from);
+            cursor = i >= 0 ? i : -i - 1;
+        }
+        while (cursor < count && positions[cursor] < from) cursor++;
+        return cursor < count ? positions[cursor] : limit;
+    }
+}
@@ -0,0 +1,269 @@
+package me.wawwior.toth.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads JSON directly from UTF-8 encoded bytes in a {@link ByteBuffer}.
+ * <p>
+ * Structural chars, literals and numbers are tokenized on the raw bytes, only keys and string values are decoded into
+ * {@link String Strings}, and only once they are read. The position of the given buffer is left untouched.
+ */
+public class Utf8JsonReader extends AbstractJsonReader {
+
+    final ByteBuffer buffer;
+    final int limit;
+    private int position;
+
+    private byte[] scratch = new byte[64];
+
+    /**
+     * Constructs a new {@link Utf8JsonReader} reading the remaining bytes of the buffer.
+     *
+     * @param buffer UTF-8 encoded JSON, e.g. a {@link MappedByteBuffer}
+     */
+    public Utf8JsonReader(ByteBuffer buffer) {
+        this(buffer, 0);
+    }
+
+    /**
+     * Constructs a new {@link Utf8JsonReader} that returns the same {@link String} instance for recurring keys.
+     *
+     * @param buffer       UTF-8 encoded JSON, e.g. a {@link MappedByteBuffer}
+     * @param keyCacheSize number of keys to cache, or {@code 0} to disable the cache
+     */
+    public Utf8JsonReader(ByteBuffer buffer, int keyCacheSize) {
+        super(keyCacheSize);
+        this.buffer = buffer;
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+    }
+
+    /**
+     * Memory-maps a file and reads it without copying or decoding it upfront.
+     *
+     * @param path the UTF-8 encoded JSON file
+     * @return a reader over the whole file
+     * @throws IOException If the file cannot be mapped.
+     */
+    public static Utf8JsonReader map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Utf8JsonReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Moves to an absolute position in the buffer and starts reading a new root value there.
+     */
+    void seek(int position) {
+        reset();
+        this.position = position;
+    }
+
+    @Override
+    int peek() {
+        return position < limit ? buffer.get(position) & 0xFF : -1;
+    }
+
+    @Override
+    void skip(int count) {
+        position = Math.min(position + count, limit);
+    }
+
+    @Override
+    String readQuotedValue() throws IOException {
+        int quote = openQuote();
+        int start = position;
+        while (true) {
+            position = findQuote(position);
+            if (position >= limit) throw new IOException("Expected quotation mark, found EOF!");
+            byte b = buffer.get(position);
+            if (b == quote) {
+                String value = decode(start, position - start);
+                position++;
+                return value;
+            }
+            if (b == '\\') return readEscaped(quote, start);
+            position++;
+        }
+    }
+
+    @Override
+    String readQuotedKey(KeyCache cache) throws IOException {
+        int quote = openQuote();
+        int start = position;
+        int hash = 0;
+        boolean ascii = true;
+        while (true) {
+            if (position >= limit) throw new IOException("Expected quotation mark, found EOF!");
+            byte b = buffer.get(position);
+            if (b == quote) break;
+            if (b == '\\') return readEscaped(quote, start);
+            ascii &= b >= 0;
+            hash = 31 * hash + b;
+            position++;
+        }
+        int length = position - start;
+        position++;
+        // the hash only matches String.hashCode() for ASCII
+        if (!ascii) return decode(start, length);
+        String key = cache.find(buffer, start, length, hash);
+        if (key == null) {
+            key = decode(start, length);
+            cache.put(key);
+        }
+        return key;
+    }
+
+    @Override
+    int readQuotedKey(String[] keys) throws IOException {
+        int quote = openQuote();
+        int start = position;
+        boolean ascii = true;
+        while (true) {
+            if (position >= limit) throw new IOException("Expected quotation mark, found EOF!");
+            byte b = buffer.get(position);
+            if (b == quote) break;
+            if (b == '\\') return indexOf(keys, readEscaped(quote, start));
+            ascii &= b >= 0;
+            position++;
+        }
+        int length = position - start;
+        position++;
+        if (!ascii) return indexOf(keys, decode(start, length));
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].length() == length && matchesAscii(keys[i], start)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Compares an ASCII key in the buffer with a {@link String} of the same length.
+     */
+    private boolean matchesAscii(String key, int start) {
+        for (int i = 0; i < key.length(); i++) {
+            if (buffer.get(start + i) != key.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    void skipQuoted() throws IOException {
+        int quote = openQuote();
+        while (true) {
+            position = findQuote(position);
+            if (position >= limit) throw new IOException("Expected quotation mark, found EOF!");
+            byte b = buffer.get(position++);
+            if (b == quote) return;
+            if (b == '\\') {
+                checkEscape(position < limit ? buffer.get(position) & 0xFF : -1);
+                position++;
+            }
+        }
+    }
+
+    @Override
+    void skipWhitespace() {
+        position = skipWhitespace(position);
+    }
+
+    /**
+     * @return the first position at or after {@code from} that isn't whitespace, or the limit
+     */
+    int skipWhitespace(int from) {
+        while (from < limit && CHAR_CLASSES[buffer.get(from) & 0xFF] == WHITESPACE) from++;
+        return from;
+    }
+
+    @Override
+    void skipPlain() {
+        position = skipPlain(position + 1);
+    }
+
+    /**
+     * Finds the end of a run of chars that can't open or close a string, map or list. Stopping early is allowed.
+     *
+     * @return a position at or after {@code from}, but not after the end of the run
+     */
+    int skipPlain(int from) {
+        return from;
+    }
+
+    /**
+     * Finds the end of a run of chars that need no attention inside a string.
+     *
+     * @return the first position at or after {@code from} holding a quote, an apostrophe or a backslash, or the limit.
+     * Quotes that don't close the string may be passed over.
+     */
+    int findQuote(int from) {
+        boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        // 8 bytes at a time, the rest one by one
+        for (; from <= limit - Long.BYTES; from += Long.BYTES) {
+            long word = buffer.getLong(from);
+            if (bigEndian) word = Long.reverseBytes(word);
+            long found = ByteClassifier.matches(word, ByteClassifier.QUOTES);
+            if (found != 0) return from + (Long.numberOfTrailingZeros(found) >>> 3);
+        }
+        while (from < limit) {
+            byte b = buffer.get(from);
+            if (b == '"' || b == '\'' || b == '\\') return from;
+            from++;
+        }
+        return limit;
+    }
+
+    private int openQuote() throws IOException {
+        int quote = peek();
+        if (quote != '"' && quote != '\'') {
+            throw new IOException("Could not find quotation mark!");
+        }
+        position++;
+        return quote;
+    }
+
+    /**
+     * Slow path for strings containing escapes, which have to be assembled first.
+     *
+     * @param start start of the string, the current position is at the first backslash
+     */
+    private String readEscaped(int quote, int start) throws IOException {
+        int length = position - start;
+        ensureScratch(length);
+        buffer.get(start, scratch, 0, length);
+        while (true) {
+            if (position >= limit) throw new IOException("Expected quotation mark, found EOF!");
+            byte b = buffer.get(position++);
+            if (b == quote) break;
+            if (b == '\\') {
+                if (position >= limit) throw new IOException("Expected escaped char, found EOF!");
+                int escaped = buffer.get(position++) & 0xFF;
+                char replacement = escaped < ESCAPES.length ? ESCAPES[escaped] : 0;
+                if (replacement == 0) throw new IOException("char '" + (char) escaped + "' cannot be escaped!");
+                b = (byte) replacement;
+            }
+            if (length == scratch.length) scratch = Arrays.copyOf(scratch, length * 2);
+            scratch[length++] = b;
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private String decode(int start, int length) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        ensureScratch(length);
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void ensureScratch(int length) {
+        if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+    }
+}
@@ -0,0 +1,170 @@
+package me.wawwior.toth.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes JSON as UTF-8 encoded bytes, without going through a {@link java.nio.charset.CharsetEncoder}.
+ * <p>
+ * Output is collected in an internal byte buffer and drained to the target in large chunks. It is flushed once the
+ * root value is complete, or on {@link #flush()}. The bytes are the same a {@link JsonWriter} would produce through a
+ * UTF-8 {@link java.io.OutputStreamWriter}, including the replacement of unpaired surrogates with {@code '?'}.
+ */
+public class Utf8JsonWriter extends AbstractJsonWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Target target;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position = 0;
+
+    private Utf8JsonWriter(Target target, JsonWriter.Style style) {
+        super(style);
+        this.target = target;
+    }
+
+    /**
+     * Constructs a new {@link Utf8JsonWriter} writing to an {@link OutputStream}.
+     *
+     * @param stream the stream
+     * @param style  style settings
+     */
+    public Utf8JsonWriter(OutputStream stream, JsonWriter.Style style) {
+        this(new Target() {
+            @Override
+            public void write(byte[] bytes, int length) throws IOException {
+                stream.write(bytes, 0, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                stream.flush();
+            }
+        }, style);
+    }
+
+    /**
+     * Constructs a new {@link Utf8JsonWriter} writing to a {@link WritableByteChannel}.
+     *
+     * @param channel the channel
+     * @param style   style settings
+     */
+    public Utf8JsonWriter(WritableByteChannel channel, JsonWriter.Style style) {
+        this((bytes, length) -> {
+            ByteBuffer wrapped = ByteBuffer.wrap(bytes, 0, length);
+            while (wrapped.hasRemaining()) channel.write(wrapped);
+        }, style);
+    }
+
+    /**
+     * Constructs a new {@link Utf8JsonWriter} putting its output into a {@link ByteBuffer}, starting at its position.
+     *
+     * @param buffer the buffer
+     * @param style  style settings
+     */
+    public Utf8JsonWriter(ByteBuffer buffer, JsonWriter.Style style) {
+        this((bytes, length) -> {
+            if (buffer.remaining() < length) throw new IOException("Buffer has no space for " + length + " more bytes!");
+            buffer.put(bytes, 0, length);
+        }, style);
+    }
+
+    /**
+     * Drains buffered output to the target and flushes it.
+     * <p>
+     * This happens automatically once the root value is complete.
+     *
+     * @throws IOException Propagated from the target.
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        target.flush();
+    }
+
+    @Override
+    void flushBuffer() throws IOException {
+        if (position == 0) return;
+        target.write(buffer, position);
+        position = 0;
+    }
+
+    @Override
+    void append(char c) throws IOException {
+        if (position == buffer.length) flushBuffer();
+        buffer[position++] = (byte) c;
+    }
+
+    @Override
+    void appendAscii(char[] chars, int length) throws IOException {
+        if (buffer.length - position < length) flushBuffer();
+        for (int i = 0; i < length; i++) buffer[position++] = (byte) chars[i];
+    }
+
+    @Override
+    void append(String string, int start, int end) throws IOException {
+        encode(string, start, end, false);
+    }
+
+    @Override
+    void appendEscaped(String string) throws IOException {
+        encode(string, 0, string.length(), true);
+    }
+
+    /**
+     * Encodes {@code string[start, end)}, replacing chars with their escape sequence if {@code escape} is set.
+     */
+    private void encode(String string, int start, int end, boolean escape) throws IOException {
+        int i = start;
+        while (i < end) {
+            // ASCII is copied as-is, as far as the buffer allows
+            int limit = Math.min(end, i + buffer.length - position);
+            char c;
+            while (i < limit && (c = string.charAt(i)) < 0x80 && (!escape || escape(c) == null)) {
+                buffer[position++] = (byte) c;
+                i++;
+            }
+            if (i == end) return;
+            // a char takes at most 3 bytes, a surrogate pair or an escape sequence 4
+            if (buffer.length - position < 4) {
+                flushBuffer();
+                continue;
+            }
+
+            c = string.charAt(i++);
+            String replacement = escape ? escape(c) : null;
+            if (replacement != null) {
+                for (int j = 0; j < replacement.length(); j++) buffer[position++] = (byte) replacement.charAt(j);
+            } else if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (!Character.isSurrogate(c)) {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i < end && Character.isLowSurrogate(string.charAt(i))) {
+                int codePoint = Character.toCodePoint(c, string.charAt(i++));
+                buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                buffer[position++] = '?';
+            }
+        }
+    }
+
+    private interface Target {
+
+        void write(byte[] bytes, int length) throws IOException;
+
+        default void flush() throws IOException {
+        }
+
+    }
+}
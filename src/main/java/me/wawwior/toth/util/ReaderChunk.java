@@ -0,0 +1,55 @@
+package me.wawwior.toth.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Fixed-size block of characters read from a {@link Reader}, linked to the block that follows it.
+ * <p>
+ * A {@link StringCursor.BufferedCursor} only references the chunk it is currently in and the chunk of its
+ * {@link StringCursor#mark()}, so chunks that no cursor or {@link StringCursor#peek()} snapshot can reach anymore are
+ * left to the garbage collector.
+ */
+final class ReaderChunk {
+
+    private final Reader reader;
+
+    final char[] chars;
+    /**
+     * Number of valid characters in {@link #chars}. Characters below this index never change.
+     */
+    int length = 0;
+
+    private ReaderChunk next = null;
+    private boolean eof = false;
+
+    ReaderChunk(Reader reader, int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Chunk capacity must be positive, got " + capacity + "!");
+        this.reader = reader;
+        this.chars = new char[capacity];
+    }
+
+    /**
+     * Reads more input into this chunk, or into a new chunk once this one is full.
+     *
+     * @return the chunk following a cursor at {@code offset}, or {@code null} if the reader is exhausted
+     * @throws IOException Propagated from the {@link Reader}
+     */
+    ReaderChunk advance(int offset) throws IOException {
+        if (offset < length) return this;
+        if (next != null) return next;
+        if (eof) return null;
+        if (length < chars.length) {
+            int read = reader.read(chars, length, chars.length - length);
+            if (read == -1) {
+                eof = true;
+                return null;
+            }
+            length += read;
+            return this;
+        }
+        next = new ReaderChunk(reader, chars.length);
+        return next.advance(0);
+    }
+
+}
@@ -12,6 +12,45 @@ public sealed interface StringCursor {
 
     Optional<Character> readChar() throws IOException;
 
+    /**
+     * Returns the next char without consuming it.
+     *
+     * @return the next char, or {@code -1} at the end of input
+     * @throws IOException Propagated from a {@link Reader}
+     */
+    int peekChar() throws IOException;
+
+    /**
+     * Consumes up to {@code count} chars, stopping early at the end of input.
+     *
+     * @param count number of chars to skip
+     * @throws IOException Propagated from a {@link Reader}
+     */
+    void skip(int count) throws IOException;
+
+    /**
+     * Consumes chars up to the next {@code a} or {@code b} and appends them to {@code builder} in bulk.
+     *
+     * @param builder receives the consumed chars
+     * @param a       a char to stop at
+     * @param b       another char to stop at
+     * @return the char that was found, which is not consumed, or {@code -1} at the end of input
+     * @throws IOException Propagated from a {@link Reader}
+     */
+    int appendUntil(StringBuilder builder, char a, char b) throws IOException;
+
+    /**
+     * Remembers the current position for a later {@link #reset()}, replacing any previous mark.
+     */
+    void mark();
+
+    /**
+     * Returns to the position of the last {@link #mark()} and clears the mark.
+     *
+     * @throws IllegalStateException If there is no mark.
+     */
+    void reset();
+
     static StringCursor of(String string) {
         return of(string, 0);
     }
@@ -21,13 +60,28 @@ public sealed interface StringCursor {
     }
 
     static StringCursor of(Reader reader) {
-        return new ReaderCursor(reader, new StringBuilder(), 0);
+        return of(reader, 8192);
+    }
+
+    /**
+     * Creates a cursor reading from the given {@link Reader} in blocks of {@code capacity} chars.
+     * <p>
+     * Input that neither the cursor nor any of its {@link #peek()} snapshots can reach anymore is discarded, so memory
+     * use does not depend on the length of the input.
+     *
+     * @param reader   the backing {@link Reader}
+     * @param capacity size of each block
+     * @return a new cursor at the start of the reader
+     */
+    static StringCursor of(Reader reader, int capacity) {
+        return new BufferedCursor(new ReaderChunk(reader, capacity), 0);
     }
 
     final class DefaultCursor implements StringCursor {
 
         private final String string;
         private int position;
+        private int mark = -1;
 
         private DefaultCursor(String string, int position) {
             this.string = string;
@@ -66,59 +120,159 @@ public sealed interface StringCursor {
                 return Optional.empty();
             }
         }
+
+        @Override
+        public int peekChar() {
+            return position < string.length() ? string.charAt(position) : -1;
+        }
+
+        @Override
+        public void skip(int count) {
+            position = Math.min(position + count, Math.max(position, string.length()));
+        }
+
+        @Override
+        public int appendUntil(StringBuilder builder, char a, char b) {
+            int length = string.length();
+            int end = position;
+            while (end < length) {
+                char c = string.charAt(end);
+                if (c == a || c == b) break;
+                end++;
+            }
+            builder.append(string, position, end);
+            position = end;
+            return end < length ? string.charAt(end) : -1;
+        }
+
+        @Override
+        public void mark() {
+            mark = position;
+        }
+
+        @Override
+        public void reset() {
+            if (mark == -1) throw new IllegalStateException("No mark set!");
+            position = mark;
+            mark = -1;
+        }
     }
 
-    final class ReaderCursor implements StringCursor {
+    final class BufferedCursor implements StringCursor {
 
-        private final Reader reader;
-        private final StringBuilder buffer;
-        private int position;
+        private ReaderChunk chunk;
+        private int offset;
 
-        private ReaderCursor(Reader reader, StringBuilder buffer, int position) {
-            this.reader = reader;
-            this.buffer = buffer;
-            this.position = position;
+        private ReaderChunk markChunk = null;
+        private int markOffset;
+
+        private BufferedCursor(ReaderChunk chunk, int offset) {
+            this.chunk = chunk;
+            this.offset = offset;
         }
 
         @Override
         public StringCursor peek() {
-            return new ReaderCursor(reader, buffer, position);
+            return new BufferedCursor(chunk, offset);
         }
 
         @Override
         public String readUntil(String terminators, boolean include) throws IOException {
-            StringBuilder builder = new StringBuilder();
+            StringBuilder builder = null;
+            int start = offset;
             while (true) {
-                try {
-                    char c = buffer.charAt(position);
-                    boolean terminate = terminators.indexOf(c) >= 0;
-                    if (terminate && !include) break;
-                    next();
-                    builder.append(c);
-                    if (terminate) break;
-                } catch (IndexOutOfBoundsException e) {
-                    break;
+                if (offset >= chunk.length) {
+                    ReaderChunk current = chunk;
+                    int end = offset;
+                    if (!ensure()) break;
+                    if (chunk != current) {
+                        if (builder == null) builder = new StringBuilder();
+                        builder.append(current.chars, start, end - start);
+                        start = 0;
+                    }
                 }
+                char c = chunk.chars[offset];
+                boolean terminate = terminators.indexOf(c) >= 0;
+                if (terminate && !include) break;
+                offset++;
+                if (terminate) break;
             }
-            return builder.toString();
+            if (builder == null) return new String(chunk.chars, start, offset - start);
+            return builder.append(chunk.chars, start, offset - start).toString();
         }
 
         @Override
         public Optional<Character> readChar() throws IOException {
-            try {
-                next();
-                return Optional.of(buffer.charAt(position - 1));
-            } catch (IndexOutOfBoundsException e) {
-                return Optional.empty();
+            if (!ensure()) return Optional.empty();
+            return Optional.of(chunk.chars[offset++]);
+        }
+
+        @Override
+        public int peekChar() throws IOException {
+            if (offset >= chunk.length && !ensure()) return -1;
+            return chunk.chars[offset];
+        }
+
+        @Override
+        public void skip(int count) throws IOException {
+            while (count > 0 && ensure()) {
+                int skipped = Math.min(count, chunk.length - offset);
+                offset += skipped;
+                count -= skipped;
+            }
+        }
+
+        @Override
+        public int appendUntil(StringBuilder builder, char a, char b) throws IOException {
+            while (ensure()) {
+                char[] chars = chunk.chars;
+                int length = chunk.length;
+                int end = offset;
+                while (end < length) {
+                    char c = chars[end];
+                    if (c == a || c == b) break;
+                    end++;
+                }
+                builder.append(chars, offset, end - offset);
+                offset = end;
+                if (end < length) return chars[end];
             }
+            return -1;
         }
 
-        private void next() throws IOException {
-            position++;
-            if (buffer.length() <= position) {
-                int i = reader.read();
-                if (i != -1) buffer.append((char) i);
+        @Override
+        public void mark() {
+            markChunk = chunk;
+            markOffset = offset;
+        }
+
+        @Override
+        public void reset() {
+            if (markChunk == null) throw new IllegalStateException("No mark set!");
+            chunk = markChunk;
+            offset = markOffset;
+            markChunk = null;
+        }
+
+        /**
+         * Makes sure there is a character at the current position, moving on to the next chunk if necessary.
+         *
+         * @return {@code false} if the reader is exhausted
+         */
+        private boolean ensure() throws IOException {
+            ReaderChunk next = chunk;
+            int at = offset;
+            while (at >= next.length) {
+                ReaderChunk following = next.advance(at);
+                if (following == null) return false;
+                if (following != next) {
+                    next = following;
+                    at = 0;
+                }
             }
+            chunk = next;
+            offset = at;
+            return true;
         }
     }
 }
@@ -0,0 +1,10 @@
+package me.wawwior.toth.util.function;
+
+/**
+ * A function of 11 arguments.
+ */
+public interface Function11<P1, P2, P3, P4, P5, P6, P7, P8, P9, P10, P11, R> {
+
+    R apply(P1 p1, P2 p2, P3 p3, P4 p4, P5 p5, P6 p6, P7 p7, P8 p8, P9 p9, P10 p10, P11 p11);
+
+}
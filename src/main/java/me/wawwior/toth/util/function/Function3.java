@@ -0,0 +1,10 @@
+package me.wawwior.toth.util.function;
+
+/**
+ * A function of 3 arguments.
+ */
+public interface Function3<P1, P2, P3, R> {
+
+    R apply(P1 p1, P2 p2, P3 p3);
+
+}
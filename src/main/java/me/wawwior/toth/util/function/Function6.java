@@ -0,0 +1,10 @@
+package me.wawwior.toth.util.function;
+
+/**
+ * A function of 6 arguments.
+ */
+public interface Function6<P1, P2, P3, P4, P5, P6, R> {
+
+    R apply(P1 p1, P2 p2, P3 p3, P4 p4, P5 p5, P6 p6);
+
+}
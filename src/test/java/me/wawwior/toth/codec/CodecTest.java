@@ -1,14 +1,20 @@
 package me.wawwior.toth.codec;
 
 import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.data.DataList;
 import me.wawwior.toth.data.DataMap;
+import me.wawwior.toth.data.primitives.DataNumber;
 import me.wawwior.toth.json.JsonReader;
+import me.wawwior.toth.json.JsonTape;
 import me.wawwior.toth.json.JsonWriter;
 import me.wawwior.toth.util.StringCursor;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,4 +49,228 @@ class CodecTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void write_matchesTree() throws IOException {
+        Codec<Point> codec = pointCodec();
+        Point point = new Point(1, -2, null);
+
+        StringWriter treeWriter = new StringWriter();
+        codec.encode(point).value().write(new JsonWriter(treeWriter, JsonWriter.Style.compact()));
+
+        StringWriter streamWriter = new StringWriter();
+        assertEquals(Optional.empty(), codec.write(point, new JsonWriter(streamWriter, JsonWriter.Style.compact())));
+
+        assertEquals("{\"x\":1,\"y\":-2,\"name\":null}", streamWriter.toString());
+        assertEquals(treeWriter.toString(), streamWriter.toString());
+    }
+
+    @Test
+    void read_group_anyKeyOrder() throws IOException {
+        Codec<List<Point>> codec = pointCodec().listOf();
+
+        Result<List<Point>, String> result = codec.read(reader("""
+                [
+                  {"name": "a", "y": 2, "x": 1},
+                  {"x": 3, "extra": {"nested": [1, 2]}, "y": 4, "name": null}
+                ]"""));
+
+        assertTrue(result.isPresent(), result.error());
+        assertEquals(List.of(new Point(1, 2, "a"), new Point(3, 4, null)), result.value());
+    }
+
+    @Test
+    void read_group_errors() throws IOException {
+        Codec<Point> codec = pointCodec();
+
+        assertEquals("DataMap does not have key \"y\"!", codec.read(reader("{\"x\": 1, \"name\": null}")).error());
+        assertEquals("Expected \"number_type\", got \"string_type\"!", codec.read(reader("{\"x\": \"1\"}")).error());
+        assertEquals("Expected \"map_type\", got \"list_type\"!", codec.read(reader("[]")).error());
+        assertEquals("1.5 is not an integer!", codec.read(reader("{\"x\": 1.5}")).error());
+    }
+
+    record Wide(int a, int b, int c, int d, int e, int f, int g, int h, int i, int j, int k, String l) {}
+
+    private static Codec<Wide> wideCodec() {
+        return Codec.group(
+                Wide.class,
+                Codec.INT_CODEC.fieldOf("a").bind(Wide::a),
+                Codec.INT_CODEC.fieldOf("b").bind(Wide::b),
+                Codec.INT_CODEC.fieldOf("c").bind(Wide::c),
+                Codec.INT_CODEC.fieldOf("d").bind(Wide::d),
+                Codec.INT_CODEC.fieldOf("e").bind(Wide::e),
+                Codec.INT_CODEC.fieldOf("f").bind(Wide::f),
+                Codec.INT_CODEC.fieldOf("g").bind(Wide::g),
+                Codec.INT_CODEC.fieldOf("h").bind(Wide::h),
+                Codec.INT_CODEC.fieldOf("i").bind(Wide::i),
+                Codec.INT_CODEC.fieldOf("j").bind(Wide::j),
+                Codec.INT_CODEC.fieldOf("k").bind(Wide::k),
+                Codec.STRING_CODEC.fieldOf("l").bind(Wide::l),
+                Wide::new
+        );
+    }
+
+    @Test
+    void group_wide() throws IOException {
+        Codec<Wide> codec = wideCodec();
+        Wide wide = new Wide(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, "twelve");
+
+        StringWriter writer = new StringWriter();
+        assertEquals(Optional.empty(), codec.write(wide, new JsonWriter(writer, JsonWriter.Style.compact())));
+        String json = writer.toString();
+        assertEquals("{\"a\":1,\"b\":2,\"c\":3,\"d\":4,\"e\":5,\"f\":6,\"g\":7,\"h\":8,\"i\":9,\"j\":10,\"k\":11,\"l\":\"twelve\"}", json);
+
+        assertEquals(wide, codec.read(reader(json)).value());
+        assertEquals(wide, codec.decode(codec.encode(wide).value()).value());
+        assertEquals("DataMap does not have key \"c\"!", codec.decode(DataMap.read(reader("{\"a\": 1, \"b\": 2}"))).error());
+    }
+
+    @Test
+    void decode_group_dispatch() throws IOException {
+        Codec<Wide> codec = wideCodec();
+        String json = "{\"l\": \"x\", \"extra\": [1], \"a\": 1, \"b\": 2, \"c\": 3, \"d\": 4, \"e\": 5, \"f\": 6, \"g\": 7, \"h\": 8, \"i\": 9, \"j\": 10, \"k\": 11}";
+
+        Wide expected = new Wide(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, "x");
+        assertEquals(expected, codec.decode(DataMap.read(reader(json))).value());
+        assertEquals(expected, codec.decode(JsonTape.read(json)).value());
+        assertEquals("Expected \"map_type\", got \"list_type\"!", codec.decode(DataList.read(reader("[]"))).error());
+        assertEquals("Expected \"number_type\", got \"string_type\"!", codec.decode(DataMap.read(reader(json.replace("\"a\": 1", "\"a\": \"1\"")))).error());
+    }
+
+    record Pair(int aa, int bb) {}
+
+    @Test
+    void decode_group_collidingKeys() throws IOException {
+        // "Aa" and "BB" have the same hash code, so these fields are decoded one by one
+        Codec<Pair> codec = Codec.group(
+                Pair.class,
+                Codec.INT_CODEC.fieldOf("Aa").bind(Pair::aa),
+                Codec.INT_CODEC.fieldOf("BB").bind(Pair::bb),
+                Pair::new
+        );
+
+        assertEquals(new Pair(1, 2), codec.decode(DataMap.read(reader("{\"BB\": 2, \"Aa\": 1}"))).value());
+        assertEquals("DataMap does not have key \"BB\"!", codec.decode(DataMap.read(reader("{\"Aa\": 1}"))).error());
+    }
+
+    @Test
+    void decode_group_keyedFieldWithoutDecodeValue() throws IOException {
+        // only overrides key() and decode(), so its value is decoded from a map holding just that key
+        BoundFieldCodec<Pair, Integer> doubled = new BoundFieldCodec<>() {
+            @Override
+            public String key() {
+                return "bb";
+            }
+
+            @Override
+            public Optional<String> encode(Pair pair, DataMap map) {
+                map.put("bb", new DataNumber((long) pair.bb() / 2));
+                return Optional.empty();
+            }
+
+            @Override
+            public Result<Integer, String> decode(DataElement element) {
+                return element.as(DataElement.Type.MAP_TYPE).get("bb")
+                        .map(value -> Codec.INT_CODEC.decode(value).mapValue(i -> i * 2))
+                        .orElseGet(() -> Result.error("missing"));
+            }
+        };
+        Codec<Pair> codec = Codec.group(Pair.class, Codec.INT_CODEC.fieldOf("aa").bind(Pair::aa), doubled, Pair::new);
+        String json = "{\"aa\": 1, \"bb\": 2}";
+
+        assertEquals(new Pair(1, 4), codec.decode(DataMap.read(reader(json))).value());
+        assertEquals(new Pair(1, 4), codec.decode(JsonTape.read(json)).value());
+        assertEquals(new Pair(1, 4), codec.read(reader(json)).value());
+    }
+
+    @Test
+    void result_rendersErrorOnDemand() {
+        int[] rendered = {0};
+        Result<Integer, String> error = Result.lazyError(() -> "failed " + ++rendered[0]);
+
+        Result<String, String> mapped = error.mapValue(Object::toString).flatMapValue(Result::result);
+        assertSame(error, mapped);
+        assertEquals(0, rendered[0]);
+        assertEquals("failed 1", mapped.error());
+        assertEquals("failed 1", error.error());
+        assertEquals(1, rendered[0]);
+        assertEquals("failed", Result.error("failed").castError().error());
+        assertEquals(Result.result(1), Result.result(1));
+    }
+
+    @Test
+    void numbers_fit() throws IOException {
+        assertEquals(DataNumber.Fit.EXACT, new DataNumber(1L).fitsInt());
+        assertEquals(DataNumber.Fit.FRACTIONAL, new DataNumber(1.0).fitsInt());
+        assertEquals(DataNumber.Fit.FRACTIONAL, new DataNumber(1.5).fitsInt());
+        assertEquals(DataNumber.Fit.OUT_OF_RANGE, new DataNumber(1L << 40).fitsInt());
+        assertEquals(DataNumber.Fit.EXACT, new DataNumber(1L << 40).fitsLong());
+        assertEquals(DataNumber.Fit.OUT_OF_RANGE, new DataNumber(new DataNumber.GenericNumber("123456789012345678901234")).fitsLong());
+        assertEquals(DataNumber.Fit.EXACT, new DataNumber(new DataNumber.GenericNumber("5")).fitsInt());
+        assertEquals(DataNumber.Fit.EXACT, new DataNumber(new DataNumber.GenericNumber("5.000")).fitsInt());
+        assertEquals(DataNumber.Fit.FRACTIONAL, new DataNumber(new DataNumber.GenericNumber("5.5")).fitsLong());
+        assertEquals(DataNumber.Fit.OUT_OF_RANGE, new DataNumber(new DataNumber.GenericNumber("1e30")).fitsLong());
+        assertEquals(DataNumber.Fit.EXACT, new DataNumber(BigInteger.valueOf(5)).fitsInt());
+        assertEquals(DataNumber.Fit.OUT_OF_RANGE, new DataNumber(BigInteger.ONE.shiftLeft(40)).fitsInt());
+        assertEquals(DataNumber.Fit.EXACT, new DataNumber(new BigDecimal("5.0")).fitsInt());
+        assertEquals(DataNumber.Fit.FRACTIONAL, new DataNumber(new BigDecimal("5.5")).fitsInt());
+        assertEquals(DataNumber.Fit.OUT_OF_RANGE, new DataNumber(new BigDecimal("1E30")).fitsLong());
+
+        assertEquals("1.5 is not an integer!", Codec.INT_CODEC.decode(new DataNumber(1.5)).error());
+        assertEquals(5, (int) Codec.INT_CODEC.decode(new DataNumber(new DataNumber.GenericNumber("5"))).value());
+        assertEquals(5L, (long) Codec.LONG_CODEC.decode(new DataNumber(new BigDecimal("5.0"))).value());
+        assertEquals("1E+30 is out of range for a long!", Codec.LONG_CODEC.decode(new DataNumber(new BigDecimal("1E30"))).error());
+        assertEquals("1099511627776 is out of range for an int!", Codec.INT_CODEC.decode(new DataNumber(1L << 40)).error());
+        assertEquals("1099511627776 is out of range for an int!", Codec.INT_CODEC.read(reader("1099511627776")).error());
+        assertEquals("123456789012345678901234 is out of range for a long!", Codec.LONG_CODEC.read(reader("123456789012345678901234")).error());
+        assertEquals(Integer.MIN_VALUE, (int) Codec.INT_CODEC.read(reader("-2147483648")).value());
+        assertEquals(1099511627776L, (long) Codec.LONG_CODEC.read(reader("1099511627776")).value());
+    }
+
+    record Samples(long id, double[] values) {}
+
+    @Test
+    void primitive_arrays() throws IOException {
+        Codec<Samples> codec = Codec.group(
+                Samples.class,
+                Codec.LONG_CODEC.fieldOf("id", Samples::id),
+                Codec.DOUBLE_CODEC.arrayOf().fieldOf("values").bind(Samples::values),
+                Samples::new
+        );
+        Samples samples = new Samples(1L << 40, new double[]{0.5, -1.0, 2.25});
+
+        StringWriter writer = new StringWriter();
+        assertEquals(Optional.empty(), codec.write(samples, new JsonWriter(writer, JsonWriter.Style.compact())));
+        assertEquals("{\"id\":1099511627776,\"values\":[0.5,-1.0,2.25]}", writer.toString());
+
+        Samples read = codec.read(reader(writer.toString())).value();
+        Samples decoded = codec.decode(codec.encode(samples).value()).value();
+        for (Samples s : List.of(read, decoded)) {
+            assertEquals(samples.id(), s.id());
+            assertArrayEquals(samples.values(), s.values());
+        }
+
+        String ints = "[" + "1, ".repeat(40) + "-2147483648]";
+        assertEquals(41, Codec.INT_CODEC.arrayOf().read(reader(ints)).value().length);
+        assertArrayEquals(new long[]{3, 4}, Codec.LONG_CODEC.arrayOf().decode(DataList.read(reader("[3, 4]"))).value());
+        assertEquals("1.5 is not an integer!", Codec.INT_CODEC.arrayOf().read(reader("[1, 1.5]")).error());
+        assertEquals("Expected \"number_type\", got \"string_type\"!", Codec.LONG_CODEC.arrayOf().decode(DataList.read(reader("[\"1\"]"))).error());
+        assertEquals(7, Codec.INT_CODEC.decodeInt(new DataNumber(7L)).value());
+    }
+
+    private static JsonReader reader(String json) {
+        return new JsonReader(StringCursor.of(json));
+    }
+
+    record Point(int x, int y, String name) {}
+
+    private static Codec<Point> pointCodec() {
+        return Codec.group(
+                Point.class,
+                Codec.INT_CODEC.fieldOf("x").bind(Point::x),
+                Codec.INT_CODEC.fieldOf("y").bind(Point::y),
+                Codec.STRING_CODEC.nullable().fieldOf("name").bind(Point::name),
+                Point::new
+        );
+    }
+
+}
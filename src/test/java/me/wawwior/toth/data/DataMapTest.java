@@ -0,0 +1,106 @@
+package me.wawwior.toth.data;
+
+import me.wawwior.toth.data.primitives.DataNumber;
+import me.wawwior.toth.json.JsonWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataMapTest {
+
+    @Test
+    void put_keepsInsertionOrder() throws IOException {
+        for (int count : new int[]{3, 8, 9, 40}) {
+            DataMap map = new DataMap();
+            StringJoiner expected = new StringJoiner(",", "{", "}");
+            for (int i = 0; i < count; i++) {
+                map.put("k" + i, new DataNumber(i));
+                expected.add("\"k" + i + "\":" + i);
+            }
+            assertEquals(expected.toString(), write(map));
+        }
+    }
+
+    @Test
+    void put_existingKey_replacesInPlace() throws IOException {
+        DataMap map = new DataMap();
+        for (int i = 0; i < 20; i++) map.put("k" + i, new DataNumber(i));
+        map.put("k0", new DataNumber(100));
+        map.put("k15", new DataNumber(115));
+
+        assertEquals(100, asInt(map, "k0"));
+        assertEquals(115, asInt(map, "k15"));
+        assertTrue(write(map).startsWith("{\"k0\":100,\"k1\":1,"));
+    }
+
+    @Test
+    void remove_acrossThreshold() throws IOException {
+        DataMap map = new DataMap();
+        for (int i = 0; i < 12; i++) map.put("k" + i, new DataNumber(i));
+
+        for (int i = 0; i < 12; i += 2) map.remove("k" + i);
+        map.remove("missing");
+
+        for (int i = 0; i < 12; i++) {
+            Optional<DataElement> element = map.get("k" + i);
+            assertEquals(i % 2 == 1, element.isPresent(), "k" + i);
+        }
+        assertEquals("{\"k1\":1,\"k3\":3,\"k5\":5,\"k7\":7,\"k9\":9,\"k11\":11}", write(map));
+
+        map.put("k0", new DataNumber(0));
+        assertEquals(Optional.empty(), map.get("k2"));
+        assertTrue(write(map).endsWith("\"k11\":11,\"k0\":0}"));
+    }
+
+    @Test
+    void remove_keepsIndexConsistent() {
+        DataMap map = new DataMap();
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            keys.add("k" + i);
+            map.put("k" + i, new DataNumber(i));
+        }
+
+        Random random = new Random(7);
+        while (keys.size() > 4) {
+            String removed = keys.remove(random.nextInt(keys.size()));
+            map.remove(removed);
+            assertEquals(Optional.empty(), map.get(removed));
+            for (String key : keys) assertEquals(Integer.parseInt(key.substring(1)), asInt(map, key), key);
+        }
+    }
+
+    @Test
+    void getAll_findsKeysInOnePass() {
+        DataMap map = new DataMap();
+        for (int i = 0; i < 10; i++) map.put("k" + i, new DataNumber(i));
+        KeyIndex keys = KeyIndex.of(new String[]{"k7", "missing", "k2"});
+        DataElement[] values = new DataElement[3];
+
+        map.getAll(keys, values);
+
+        assertSame(map.get("k7").orElseThrow(), values[0]);
+        assertNull(values[1]);
+        assertSame(map.get("k2").orElseThrow(), values[2]);
+        assertNull(KeyIndex.of(new String[]{"a", "a"}));
+    }
+
+    private static int asInt(DataMap map, String key) {
+        return map.get(key).orElseThrow().as(DataElement.Type.NUMBER_TYPE).asInt();
+    }
+
+    private static String write(DataMap map) throws IOException {
+        StringWriter writer = new StringWriter();
+        map.write(new JsonWriter(writer, JsonWriter.Style.compact()));
+        return writer.toString();
+    }
+
+}
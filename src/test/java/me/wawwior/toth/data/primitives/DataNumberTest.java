@@ -0,0 +1,66 @@
+package me.wawwior.toth.data.primitives;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataNumberTest {
+
+    @Test
+    void exactIntegers_storedAsLong() {
+        LongAdder adder = new LongAdder();
+        adder.add(5);
+        List<Number> numbers = List.of(
+                BigInteger.valueOf(5),
+                new BigDecimal("5"),
+                new BigDecimal("5.000"),
+                new BigDecimal("0.5E1"),
+                new AtomicInteger(5),
+                new AtomicLong(5),
+                adder
+        );
+        for (Number number : numbers) {
+            DataNumber data = new DataNumber(number);
+            assertEquals(5, data.asInt(), number.getClass().getName());
+            assertEquals(5L, data.asLong());
+            assertEquals(5L, data.value());
+        }
+    }
+
+    @Test
+    void inexactNumbers_keptExactly() {
+        BigInteger large = BigInteger.ONE.shiftLeft(64);
+        assertSame(large, new DataNumber(large).value());
+        BigDecimal fraction = new BigDecimal("5.5");
+        assertSame(fraction, new DataNumber(fraction).value());
+        BigDecimal huge = new BigDecimal("1E1000000000");
+        assertSame(huge, new DataNumber(huge).value());
+
+        assertEquals(Long.MIN_VALUE, new DataNumber(BigInteger.valueOf(Long.MIN_VALUE)).asLong());
+        assertEquals(0L, new DataNumber(new BigDecimal("0E-10")).value());
+    }
+
+    @Test
+    void genericNumber_decimalOnlyForFit() {
+        int[] created = {0};
+        DataNumber.GenericNumber number = new DataNumber.GenericNumber("5.000") {
+            @Override
+            public BigDecimal bigDecimalValue() {
+                created[0]++;
+                return super.bigDecimalValue();
+            }
+        };
+        DataNumber data = new DataNumber(number);
+        assertEquals(5.0, data.asDouble());
+        assertEquals(0, created[0]);
+        assertEquals(5, data.asInt());
+    }
+
+}
@@ -0,0 +1,44 @@
+package me.wawwior.toth.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class ByteClassifierTest {
+
+    @Test
+    void classify_matchesBytes() {
+        byte[] alphabet = " \n\r\t\"'\\{}[]:,-0a\u00e9".getBytes(StandardCharsets.UTF_8);
+        Random random = new Random(42);
+        byte[] bytes = new byte[1000];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = alphabet[random.nextInt(alphabet.length)];
+        // the scalar fallback, and the vectorized classifier if it is built and the module is present
+        for (ByteClassifier classifier : new ByteClassifier[]{new ByteClassifier(), ByteClassifier.create()}) {
+            for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+                classify(classifier, ByteBuffer.wrap(bytes).order(order), bytes);
+            }
+        }
+    }
+
+    private static void classify(ByteClassifier classifier, ByteBuffer buffer, byte[] bytes) {
+        for (int limit : new int[]{bytes.length, 999, 970}) {
+            for (int offset = 0; offset < limit; offset += 61) {
+                long[] expected = new long[3];
+                long[] actual = new long[3];
+                for (int i = offset; i < Math.min(offset + ByteClassifier.BLOCK_SIZE, limit); i++) {
+                    byte b = bytes[i];
+                    if (b == ' ' || b == '\n' || b == '\r' || b == '\t') expected[ByteClassifier.WHITESPACE] |= 1L << (i - offset);
+                    if (b == '"' || b == '\'' || b == '\\') expected[ByteClassifier.QUOTES] |= 1L << (i - offset);
+                    if (b == '{' || b == '}' || b == '[' || b == ']' || b == ':' || b == ',') expected[ByteClassifier.STRUCTURAL] |= 1L << (i - offset);
+                }
+                classifier.classify(buffer, offset, limit, actual);
+                assertArrayEquals(expected, actual);
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package me.wawwior.toth.json;
+
+import me.wawwior.toth.codec.Codec;
+import me.wawwior.toth.codec.Result;
+import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.data.DataList;
+import me.wawwior.toth.data.primitives.DataNumber;
+import me.wawwior.toth.data.primitives.DataString;
+import me.wawwior.toth.util.StringCursor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonLinesTest {
+
+    //language=TEXT
+    private static final String LINES = """
+            [1]
+
+            [2, "bad", [3, {"z": 4}]]
+            {"x": 5}
+            """;
+
+    @Test
+    void write_oneRecordPerLine() throws IOException {
+        DataList list = new DataList();
+        list.add(new DataString("caf\u00e9"));
+
+        StringWriter chars = new StringWriter();
+        JsonLinesWriter writer = new JsonLinesWriter(chars);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonLinesWriter utf8Writer = new JsonLinesWriter(bytes);
+        for (JsonLinesWriter w : List.of(writer, utf8Writer)) {
+            w.write(list);
+            w.write(new DataNumber(1L));
+            assertEquals(Optional.empty(), w.write(List.of(2), Codec.INT_CODEC.listOf()));
+            w.flush();
+        }
+
+        String expected = "[\"caf\u00e9\"]\n1\n[2]\n";
+        assertEquals(expected, chars.toString());
+        assertEquals(expected, bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void stream_elements() {
+        List<String> types = new JsonLinesReader(new JsonReader(StringCursor.of(new StringReader(LINES), 16)))
+                .stream()
+                .map(element -> element.type().toString())
+                .collect(Collectors.toList());
+
+        assertEquals(List.of("list_type", "list_type", "map_type"), types);
+    }
+
+    @Test
+    void stream_skipsFailedRecords() {
+        Utf8JsonReader reader = new Utf8JsonReader(ByteBuffer.wrap(LINES.getBytes(StandardCharsets.UTF_8)));
+        List<Result<List<Integer>, String>> results = new JsonLinesReader(reader)
+                .stream(Codec.INT_CODEC.listOf())
+                .collect(Collectors.toList());
+
+        assertEquals(3, results.size());
+        assertEquals(List.of(1), results.get(0).value());
+        assertEquals(false, results.get(1).isPresent());
+        assertEquals(false, results.get(2).isPresent());
+    }
+
+    @Test
+    void next_skipsUnreadRecords() throws IOException {
+        JsonLinesReader lines = new JsonLinesReader(new JsonReader(StringCursor.of(LINES)));
+
+        assertEquals(true, lines.next());
+        assertEquals(true, lines.next());
+        lines.reader().enterList();
+        lines.reader().readInt();
+        assertEquals(true, lines.next());
+        assertEquals(5L, DataElement.read(lines.reader()).as(DataElement.Type.MAP_TYPE).get("x").orElseThrow().as(DataElement.Type.NUMBER_TYPE).value());
+        assertEquals(false, lines.next());
+        assertEquals(false, lines.next());
+    }
+
+    @Test
+    void next_malformed() throws IOException {
+        JsonLinesReader lines = new JsonLinesReader(new JsonReader(StringCursor.of("[1, 2\n[3]")));
+
+        assertEquals(true, lines.next());
+        IOException exception = assertThrows(IOException.class, lines::next);
+        assertEquals("Expected ']', found end of reader!", exception.getMessage());
+    }
+}
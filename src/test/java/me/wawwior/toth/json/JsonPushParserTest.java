@@ -0,0 +1,111 @@
+package me.wawwior.toth.json;
+
+import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.util.StringCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonPushParserTest {
+
+    //language=JSON
+    private static final String DOCUMENT = """
+            {
+              "id": 7,
+              "na\\"me": "caf\u00e9 \u20ac",
+              "tags": ['a', "b", []],
+              "blob": {"deep": [1, -2.5e3, {"x": null}], "flag": true, "off": false}
+            }""";
+
+    @Test
+    void feed_splitAnywhere() throws IOException {
+        byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        String expected = write(DataElement.read(new JsonReader(StringCursor.of(DOCUMENT))));
+
+        for (int split = 0; split <= bytes.length; split++) {
+            List<DataElement> elements = new ArrayList<>();
+            JsonPushParser parser = new JsonPushParser(elements::add);
+            parser.feed(ByteBuffer.wrap(bytes, 0, split));
+            parser.feed(ByteBuffer.wrap(bytes, split, bytes.length - split));
+            parser.end();
+
+            assertEquals(1, elements.size());
+            assertEquals(expected, write(elements.get(0)));
+        }
+    }
+
+    @Test
+    void feed_byteByByte() throws IOException {
+        List<DataElement> elements = new ArrayList<>();
+        JsonPushParser parser = new JsonPushParser(elements::add);
+        for (byte b : "[1, \"two\"] {} 3 true".getBytes(StandardCharsets.UTF_8)) {
+            parser.feed(ByteBuffer.wrap(new byte[]{b}));
+        }
+        assertEquals(3, elements.size());
+
+        parser.end();
+        List<String> written = new ArrayList<>();
+        for (DataElement element : elements) written.add(write(element));
+        assertEquals(List.of("[1,\"two\"]", "{}", "3", "true"), written);
+    }
+
+    @Test
+    void feed_longString() throws IOException {
+        String value = "ab\u00e9\"".repeat(5000);
+        List<DataElement> elements = new ArrayList<>();
+        JsonPushParser parser = new JsonPushParser(elements::add);
+        byte[] bytes = ("[\"" + value.replace("\"", "\\\"") + "\"]").getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += 1000) {
+            parser.feed(ByteBuffer.wrap(bytes, i, Math.min(1000, bytes.length - i)));
+        }
+        parser.end();
+
+        assertEquals(value, elements.get(0).as(DataElement.Type.LIST_TYPE).get(0).orElseThrow().as(DataElement.Type.STRING_TYPE).value());
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void feed_malformed(String input, String expected) {
+        JsonPushParser parser = new JsonPushParser(element -> {
+        });
+        IOException exception = assertThrows(IOException.class, () -> {
+            parser.feed(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
+            parser.end();
+        });
+        assertEquals(expected, exception.getMessage());
+    }
+
+    static Stream<Arguments> feed_malformed() {
+        return Stream.of(
+                Arguments.of("[1, 2", "Expected ',' or ']', found end of reader!"),
+                Arguments.of("[1, 2}", "Expected ',' or ']', found '}'!"),
+                Arguments.of("[1,]", "Expected value, found ']'!"),
+                Arguments.of("{\"a\" 1}", "Expected ':', found '1'!"),
+                Arguments.of("{\"a\": 1,}", "Expected key, found '}'!"),
+                Arguments.of("{1: 2}", "Expected key or '}', found '1'!"),
+                Arguments.of("[01]", "Expected end of number, found '1'!"),
+                Arguments.of("[\"\\q\"]", "char 'q' cannot be escaped!"),
+                Arguments.of("[\"a", "Expected quotation mark, found EOF!"),
+                Arguments.of("[tru]", "Expected \"true\", found ']'!"),
+                Arguments.of("tru", "Expected \"true\", found end of reader!")
+        );
+    }
+
+    private static String write(DataElement element) throws IOException {
+        StringWriter writer = new StringWriter();
+        element.write(new JsonWriter(writer, JsonWriter.Style.compact()));
+        return writer.toString();
+    }
+}
@@ -1,5 +1,7 @@
 package me.wawwior.toth.json;
 
+import me.wawwior.toth.DataReader;
+import me.wawwior.toth.data.DataElement;
 import me.wawwior.toth.data.primitives.DataNumber;
 import me.wawwior.toth.util.CatchingConsumer;
 import me.wawwior.toth.util.CatchingFunction;
@@ -12,10 +14,16 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class JsonReaderTest {
@@ -26,7 +34,7 @@ class JsonReaderTest {
     @MethodSource
     void read_boolean_onRoot(String input, boolean expected) throws IOException {
         readTest(
-                JsonReader::readBoolean,
+                DataReader::readBoolean,
                 input,
                 expected
         );
@@ -52,7 +60,7 @@ class JsonReaderTest {
     @MethodSource
     void read_Number_onRoot(String input, Number expected) throws IOException {
         readTest(
-                JsonReader::readNumber,
+                DataReader::readNumber,
                 input,
                 expected
         );
@@ -101,11 +109,62 @@ class JsonReaderTest {
         );
     }
 
+    @ParameterizedTest
+    @MethodSource
+    void read_Number_compactForm(String input, Class<?> expected) throws IOException {
+        readTest(
+                reader -> reader.readNumber().getClass(),
+                input,
+                expected
+        );
+    }
+
+    static Stream<Arguments> read_Number_compactForm() {
+        return multiTestArgs(
+                List.of("-9223372036854775808", "9223372036854775808", "0.1", "-1.5e300", "1.7976931348623157e308", "1e-320", "0.30000000000000004", "0.1000000000000000055511151231257827", "1e400"),
+                List.of(Long.class, DataNumber.GenericNumber.class, Double.class, Double.class, Double.class, Double.class, Double.class, DataNumber.GenericNumber.class, DataNumber.GenericNumber.class)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void read_double_onRoot(String input, double expected) throws IOException {
+        readTest(
+                DataReader::readDouble,
+                input,
+                expected
+        );
+    }
+
+    static Stream<Arguments> read_double_onRoot() {
+        return multiTestArgs(
+                List.of("0.1", "-1e23", "9007199254740993", "2.2250738585072011e-308", "123456789012345678901234567890e-10", "1e-400"),
+                List.of(0.1, -1e23, 9007199254740992.0, 2.225073858507201e-308, 1.2345678901234568e19, 0.0)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void read_int_outOfRange(String input, String expected) {
+        throwsTest(DataReader::readInt, input, NumberFormatException.class, expected);
+    }
+
+    static Stream<Arguments> read_int_outOfRange() {
+        return multiTestArgs(
+                List.of("2147483648", "-9223372036854775809", "1.5"),
+                List.of(
+                        "2147483648 is out of range for an int!",
+                        "-9223372036854775809 is out of range for a long!",
+                        "1.5 is not an integer!"
+                )
+        );
+    }
+
     @ParameterizedTest
     @MethodSource
     void read_String_onRoot(String input, String expected) throws IOException {
         readTest(
-                JsonReader::readString,
+                DataReader::readString,
                 input,
                 expected
         );
@@ -120,12 +179,35 @@ class JsonReaderTest {
                         """
                         "\"""",
                         """
-                        "\\"\\\\\\b\\f\\n\\r\\t\""""
+                        "\\"\\\\\\b\\f\\n\\r\\t\"""",
+                        """
+                        "gr\u00fc\u00dfe, \u4e16\u754c\\n\""""
                 ),
-                List.of("value", "", "\"\\\b\f\n\r\t")
+                List.of("value", "", "\"\\\b\f\n\r\t", "gr\u00fc\u00dfe, \u4e16\u754c\n")
         );
     }
 
+    @Test
+    void read_String_fromDirectAndMappedBuffer() throws IOException {
+        byte[] bytes = """
+                ["gr\u00fc\u00dfe", "\\t"]""".getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+
+        Path file = Files.createTempFile("toth", ".json");
+        try {
+            Files.write(file, bytes);
+            for (DataReader reader : List.of(new Utf8JsonReader(direct), Utf8JsonReader.map(file))) {
+                reader.enterList();
+                assertEquals("gr\u00fc\u00dfe", reader.readString());
+                assertEquals("\t", reader.readString());
+                reader.leaveList();
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
     @Test
     void leaveMap_afterEnterMap() throws IOException {
         readTest(
@@ -609,10 +691,233 @@ class JsonReaderTest {
         );
     }
     
+    @ParameterizedTest
+    @MethodSource
+    void nextType_onRoot(String input, DataElement.Type<?> expected) throws IOException {
+        readTest(
+                DataReader::nextType,
+                input,
+                expected
+        );
+    }
+
+    static Stream<Arguments> nextType_onRoot() {
+        return multiTestArgs(
+                //language=JSON
+                List.of(
+                        """
+                        {}""",
+                        """
+                        []""",
+                        """
+                        "value\"""",
+                        """
+                        false""",
+                        """
+                        null""",
+                        """
+                        -1.5e3"""
+                ),
+                List.of(
+                        DataElement.Type.MAP_TYPE,
+                        DataElement.Type.LIST_TYPE,
+                        DataElement.Type.STRING_TYPE,
+                        DataElement.Type.BOOLEAN_TYPE,
+                        DataElement.Type.NULL_TYPE,
+                        DataElement.Type.NUMBER_TYPE
+                )
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void nextType_invalidValue(String input, String expected) {
+        throwsTest(DataReader::nextType, input, IOException.class, expected);
+    }
+
+    static Stream<Arguments> nextType_invalidValue() {
+        return multiTestArgs(
+                List.of("01", "1.", "-", "1e+", "tru", "nulls", "value"),
+                List.of(
+                        "Expected end of number, found '1'!",
+                        "Expected digit, found end of reader!",
+                        "Expected digit, found end of reader!",
+                        "Expected digit, found end of reader!",
+                        "Expected \"true\", found end of reader!",
+                        "Expected end of \"null\", found 's'!",
+                        "Expected value, found 'v'!"
+                )
+        );
+    }
+
+    @Test
+    void read_afterNextType_inList() throws IOException {
+        listReadTest(
+                List.of(
+                        reader -> {
+                            reader.enterList();
+                            return reader.nextType();
+                        },
+                        DataReader::readInt,
+                        DataReader::nextType,
+                        reader -> {
+                            boolean b = reader.readBoolean();
+                            reader.leaveList();
+                            return b;
+                        }
+                ),
+                //language=JSON
+                """
+                [ 12 , true ]""",
+                List.of(DataElement.Type.NUMBER_TYPE, 12, DataElement.Type.BOOLEAN_TYPE, true)
+        );
+    }
+
+    @Test
+    void readKey_withKeyCache() throws IOException {
+        //language=JSON
+        String input = """
+                [
+                  {"id": 1, "na\\"me": "a", "caf\u00e9": 0, "'": 1},
+                  {"id": 2, "na\\"me": "b", "caf\u00e9": 0, "'": 1}
+                ]""";
+        for (DataReader reader : List.of(
+                new JsonReader(StringCursor.of(new StringReader(input)), 64),
+                new Utf8JsonReader(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)), 64)
+        )) {
+            List<List<String>> keys = new ArrayList<>();
+            reader.enterList();
+            while (reader.hasNext()) {
+                List<String> objectKeys = new ArrayList<>();
+                reader.enterMap();
+                while (reader.hasNext()) {
+                    objectKeys.add(reader.readKey());
+                    DataElement.read(reader);
+                }
+                reader.leaveMap();
+                keys.add(objectKeys);
+            }
+            reader.leaveList();
+
+            assertEquals(List.of("id", "na\"me", "caf\u00e9", "'"), keys.get(0));
+            assertEquals(keys.get(0), keys.get(1));
+            assertSame(keys.get(0).get(0), keys.get(1).get(0));
+        }
+    }
+
+    @Test
+    void readKey_selected() throws IOException {
+        String[] keys = {"id", "na\"me", "caf\u00e9"};
+        listReadTest(
+                List.of(
+                        reader -> {
+                            reader.enterMap();
+                            return reader.readKey(keys);
+                        },
+                        reader -> {
+                            reader.skipValue();
+                            return reader.readKey(keys);
+                        },
+                        reader -> {
+                            reader.skipValue();
+                            return reader.readKey(keys);
+                        },
+                        reader -> {
+                            reader.skipValue();
+                            return reader.readKey(keys);
+                        },
+                        reader -> {
+                            reader.skipValue();
+                            return reader.readKey(keys);
+                        },
+                        reader -> {
+                            int i = reader.readInt();
+                            reader.leaveMap();
+                            return i;
+                        }
+                ),
+                //language=JSON
+                """
+                {"skip": 1, "na\\"me": 2, "caf\u00e9": 3, "id": 4, "i": 5}""",
+                List.of(-1, 1, 2, 0, -1, 5)
+        );
+    }
+
+    @Test
+    void read_String_longWithEscapes() throws IOException {
+        String value = "abc'de\u00e9fgh\"".repeat(2000);
+        readTest(
+                DataReader::readString,
+                "\"" + value.replace("\"", "\\\"") + "\"",
+                value
+        );
+    }
+
+    @Test
+    void skipValue_inList() throws IOException {
+        readTest(
+                reader -> {
+                    reader.enterList();
+                    reader.skipValue();
+                    reader.skipValue();
+                    reader.skipValue();
+                    reader.skipValue();
+                    assertEquals(3, reader.readInt());
+                    reader.leaveList();
+                },
+                //language=JSON
+                """
+                [
+                  {"a": [1, {"b": "}]\\"{"}], "c": [[[]]]},
+                  "x\\\\",
+                  -1.5e3,
+                  true,
+                  3
+                ]"""
+        );
+    }
+
+    @Test
+    void skipValue_inMap() throws IOException {
+        readTest(
+                reader -> {
+                    reader.enterMap();
+                    assertEquals("skip", reader.readKey());
+                    assertEquals(DataElement.Type.MAP_TYPE, reader.nextType());
+                    reader.skipValue();
+                    assertEquals("keep", reader.readKey());
+                    assertEquals(true, reader.readBoolean());
+                    reader.leaveMap();
+                },
+                //language=JSON
+                """
+                {"skip": {"deep": ["]", {}]}, "keep": true}"""
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void skipValue_malformed(String input, String expected) {
+        throwsTest(DataReader::skipValue, input, IOException.class, expected);
+    }
+
+    static Stream<Arguments> skipValue_malformed() {
+        return multiTestArgs(
+                List.of("[1, 2}", "{\"a\": [1]", "[\"abc", "[\"\\q\"]", "]"),
+                List.of(
+                        "Expected ']', found '}'!",
+                        "Expected '}', found end of reader!",
+                        "Expected quotation mark, found EOF!",
+                        "char 'q' cannot be escaped!",
+                        "Expected value, found ']'!"
+                )
+        );
+    }
+
     // Utility
 
     static <T> void readTest(
-            CatchingFunction<JsonReader, T, IOException> step,
+            CatchingFunction<DataReader, T, IOException> step,
             String input,
             T expected
     ) throws IOException {
@@ -623,7 +928,7 @@ class JsonReaderTest {
     }
 
     static void listReadTest(
-            List<CatchingFunction<JsonReader, ?, IOException>> steps,
+            List<CatchingFunction<DataReader, ?, IOException>> steps,
             String input,
             List<?> expected
     ) throws IOException {
@@ -632,28 +937,42 @@ class JsonReaderTest {
                         steps,
                         expected,
                         (step, e) ->
-                                (CatchingConsumer<JsonReader, IOException>) reader -> assertEquals(e, step.apply(reader))
+                                (CatchingConsumer<DataReader, IOException>) reader -> assertEquals(e, step.apply(reader))
                 ).toList(),
                 input
         );
     }
 
     static void readTest(
-            List<CatchingConsumer<JsonReader, IOException>> steps,
+            List<CatchingConsumer<DataReader, IOException>> steps,
             String input
     ) throws IOException {
-        StringCursor cursor = StringCursor.of(new StringReader(input));
-        JsonReader reader = new JsonReader(cursor);
-        Streams.catchingForEach(steps, step -> step.accept(reader), IOException.class);
+        for (DataReader reader : readers(input)) {
+            Streams.catchingForEach(steps, step -> step.accept(reader), IOException.class);
+        }
     }
 
     static void readTest(
-            CatchingConsumer<JsonReader, IOException> step,
+            CatchingConsumer<DataReader, IOException> step,
             String input
     ) throws IOException {
-        StringCursor cursor = StringCursor.of(new StringReader(input));
-        JsonReader reader = new JsonReader(cursor);
-        step.accept(reader);
+        for (DataReader reader : readers(input)) {
+            step.accept(reader);
+        }
+    }
+
+    /**
+     * Every reader implementation has to pass the same tests.
+     *
+     * @param input the json to read
+     * @return fresh readers over the input
+     */
+    static List<DataReader> readers(String input) {
+        return List.of(
+                new JsonReader(StringCursor.of(new StringReader(input))),
+                new Utf8JsonReader(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8))),
+                new IndexedJsonReader(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)))
+        );
     }
     
     static Stream<Arguments> testArgs(
@@ -730,7 +1049,7 @@ class JsonReaderTest {
      * @param consumer the write operation
      * @param expected the expected exception
      */
-    void throwsTest(CatchingConsumer<JsonReader, IOException> consumer, String input, String expected) {
+    void throwsTest(CatchingConsumer<DataReader, IOException> consumer, String input, String expected) {
         throwsTest(consumer, input, UnsupportedOperationException.class, expected);
     }
 
@@ -740,13 +1059,14 @@ class JsonReaderTest {
      * @param consumer the read operation
      * @param expected the expected exception
      */
-    <T extends Exception> void throwsTest(CatchingConsumer<JsonReader, IOException> consumer,  String input, Class<T> exceptionType, String expected) {
-        StringCursor cursor = StringCursor.of(new StringReader(input));
-        T exception = assertThrows(
-                exceptionType,
-                () -> consumer.accept(new JsonReader(cursor))
-        );
-        assertEquals(expected, exception.getMessage());
+    <T extends Exception> void throwsTest(CatchingConsumer<DataReader, IOException> consumer,  String input, Class<T> exceptionType, String expected) {
+        for (DataReader reader : readers(input)) {
+            T exception = assertThrows(
+                    exceptionType,
+                    () -> consumer.accept(reader)
+            );
+            assertEquals(expected, exception.getMessage());
+        }
     }
 
 }
@@ -0,0 +1,149 @@
+package me.wawwior.toth.json;
+
+import me.wawwior.toth.codec.Codec;
+import me.wawwior.toth.data.DataElement;
+import me.wawwior.toth.data.DataList;
+import me.wawwior.toth.data.DataMap;
+import me.wawwior.toth.data.KeyIndex;
+import me.wawwior.toth.data.primitives.DataNumber;
+import me.wawwior.toth.data.primitives.DataString;
+import me.wawwior.toth.util.StringCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonTapeTest {
+
+    //language=JSON
+    private static final String DOCUMENT = """
+            {
+              "id": 7,
+              "na\\"me": "caf\u00e9",
+              "tags": ["a", "b", []],
+              "blob": {"deep": [1, 2.5, {"x": null}], "flag": true},
+              "id": 8
+            }""";
+
+    @Test
+    void get_decodesOnAccess() throws IOException {
+        DataMap map = JsonTape.read(DOCUMENT).as(DataElement.Type.MAP_TYPE);
+
+        assertEquals(8L, map.get("id").orElseThrow().as(DataElement.Type.NUMBER_TYPE).value());
+        assertEquals("caf\u00e9", map.get("na\"me").orElseThrow().as(DataElement.Type.STRING_TYPE).value());
+        assertEquals(Optional.empty(), map.get("missing"));
+
+        DataList tags = map.get("tags").orElseThrow().as(DataElement.Type.LIST_TYPE);
+        assertEquals(3, tags.size());
+        assertEquals("b", tags.get(1).orElseThrow().as(DataElement.Type.STRING_TYPE).value());
+        assertEquals(0, tags.get(2).orElseThrow().as(DataElement.Type.LIST_TYPE).size());
+        assertEquals(Optional.empty(), tags.get(3));
+
+        DataMap blob = map.get("blob").orElseThrow().as(DataElement.Type.MAP_TYPE);
+        assertSame(blob, map.get("blob").orElseThrow());
+        List<Object> deep = new ArrayList<>();
+        for (DataElement element : blob.get("deep").orElseThrow().as(DataElement.Type.LIST_TYPE)) deep.add(element.type());
+        assertEquals(List.of(DataElement.Type.NUMBER_TYPE, DataElement.Type.NUMBER_TYPE, DataElement.Type.MAP_TYPE), deep);
+    }
+
+    @Test
+    void write_matchesEagerTree() throws IOException {
+        //language=JSON
+        String input = """
+                {"a": [1, -0.0, 1e400, "\\n", {}], "b": {"c": [true, false, null]}}""";
+        assertEquals(write(DataElement.read(new JsonReader(StringCursor.of(input)))), write(JsonTape.read(input)));
+    }
+
+    @Test
+    void put_copiesEntries() throws IOException {
+        DataMap map = JsonTape.read(DOCUMENT).as(DataElement.Type.MAP_TYPE);
+        DataList tags = map.get("tags").orElseThrow().as(DataElement.Type.LIST_TYPE);
+
+        map.put("extra", new DataString("x"));
+        map.remove("blob");
+        tags.add(new DataNumber(1L));
+
+        assertSame(tags, map.get("tags").orElseThrow());
+        assertEquals(
+                "{\"id\":8,\"na\\\"me\":\"caf\u00e9\",\"tags\":[\"a\",\"b\",[],1],\"extra\":\"x\"}",
+                write(map)
+        );
+    }
+
+    @Test
+    void get_largeMap() throws IOException {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < 100; i++) json.append("\"k").append(i).append("\": ").append(i).append(", ");
+        json.append("\"k7\": -7}");
+        DataMap map = JsonTape.read(json.toString()).as(DataElement.Type.MAP_TYPE);
+
+        assertEquals(42L, map.get("k42").orElseThrow().as(DataElement.Type.NUMBER_TYPE).value());
+        assertEquals(-7L, map.get("k7").orElseThrow().as(DataElement.Type.NUMBER_TYPE).value());
+        assertSame(map.get("k99").orElseThrow(), map.get("k99").orElseThrow());
+        assertEquals(Optional.empty(), map.get("k100"));
+        assertEquals(Optional.empty(), map.get(null));
+    }
+
+    @Test
+    void getAll_matchesInPlace() throws IOException {
+        DataMap map = JsonTape.read("{\"blob\": [1, 2], \"x\": 3, \"y\": 4, \"x\": 5}").as(DataElement.Type.MAP_TYPE);
+        KeyIndex keys = KeyIndex.of(new String[]{"y", "x", "z"});
+        DataElement[] values = new DataElement[3];
+
+        map.getAll(keys, values);
+
+        assertEquals("4", values[0].toString());
+        assertEquals("5", values[1].toString());
+        assertEquals(null, values[2]);
+        assertSame(map.get("y").orElseThrow(), values[0]);
+    }
+
+    @Test
+    void decode_onLazyMap() throws IOException {
+        DataElement element = JsonTape.read("{\"blob\": [1, 2], \"x\": 3}");
+
+        assertEquals(Integer.valueOf(3), Codec.INT_CODEC.fieldOf("x").decode(element).value());
+    }
+
+    @Test
+    void read_primitiveRoot() throws IOException {
+        assertEquals(-1.5e3, JsonTape.read(" -1.5e3 ").as(DataElement.Type.NUMBER_TYPE).asDouble());
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void read_malformed(String input, String expected) {
+        IOException exception = assertThrows(IOException.class, () -> JsonTape.read(input));
+        assertEquals(expected, exception.getMessage());
+    }
+
+    static Stream<Arguments> read_malformed() {
+        return Stream.of(
+                Arguments.of("", "Expected value, found end of reader!"),
+                Arguments.of("[1, 2}", "Expected ',' or ']', found '}'!"),
+                Arguments.of("{\"a\" 1}", "Expected ':', found '1'!"),
+                Arguments.of("{\"a\": 1,}", "Expected key, found '}'!"),
+                Arguments.of("[01]", "Expected end of number, found '1'!"),
+                Arguments.of("[\"\\q\"]", "char 'q' cannot be escaped!"),
+                Arguments.of("{} {}", "Expected end of input, found '{'!"),
+                Arguments.of("[tru]", "Expected \"true\", found ']'!")
+        );
+    }
+
+    private static String write(DataElement element) throws IOException {
+        StringWriter writer = new StringWriter();
+        element.write(new JsonWriter(writer, JsonWriter.Style.compact()));
+        return writer.toString();
+    }
+}
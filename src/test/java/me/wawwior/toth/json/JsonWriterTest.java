@@ -1,5 +1,7 @@
 package me.wawwior.toth.json;
 
+import me.wawwior.toth.DataWriter;
+import me.wawwior.toth.data.primitives.DataNumber;
 import me.wawwior.toth.util.CatchingConsumer;
 import me.wawwior.toth.util.Pair;
 import me.wawwior.toth.util.Streams;
@@ -8,11 +10,18 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -142,6 +151,75 @@ class JsonWriterTest {
         );
     }
 
+    @Test
+    void value_String_longerThanBuffer() throws IOException {
+        String chunk = "x".repeat(999) + "\"";
+        String value = chunk.repeat(20);
+        String expected = "\"" + ("x".repeat(999) + "\\\"").repeat(20) + "\"";
+
+        writeTest(writer -> writer.value(value), JsonWriter.Style.compact(), expected);
+    }
+
+    @Test
+    void value_String_escapesAcrossBuffer() throws IOException {
+        String value = "abc\tde\u00e9\\".repeat(2000);
+        String expected = "\"" + "abc\\tde\u00e9\\\\".repeat(2000) + "\"";
+
+        writeTest(writer -> writer.value(value), JsonWriter.Style.compact(), expected);
+    }
+
+    @Test
+    void openList_nestedDeeperThanIndentCache() throws IOException {
+        int depth = 20;
+        StringBuilder expected = new StringBuilder("[");
+        for (int i = 1; i < depth; i++) expected.append("\n").append("  ".repeat(i)).append("[");
+        expected.append("\n").append("  ".repeat(depth)).append("1");
+        for (int i = depth - 1; i >= 0; i--) expected.append("\n").append("  ".repeat(i)).append("]");
+
+        writeTest(
+                writer -> {
+                    for (int i = 0; i < depth; i++) writer.openList();
+                    writer.value(1);
+                    for (int i = 0; i < depth; i++) writer.closeList();
+                },
+                JsonWriter.Style.pretty("  "),
+                expected.toString()
+        );
+    }
+
+    @Test
+    void value_String_nonAscii_sameBytesAsOutputStreamWriter() throws IOException {
+        String value = ("caf\u00e9 \u20ac \ud83d\ude00 \"q\" " + "x".repeat(97)).repeat(200) + "\ud83d lone \ude00";
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        JsonWriter jsonWriter = new JsonWriter(new OutputStreamWriter(expected, StandardCharsets.UTF_8), JsonWriter.Style.pretty("  "));
+        jsonWriter.openList().value(value).value(value).closeList();
+        jsonWriter.flush();
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        new Utf8JsonWriter(stream, JsonWriter.Style.pretty("  ")).openList().value(value).value(value).closeList();
+        assertArrayEquals(expected.toByteArray(), stream.toByteArray());
+
+        ByteArrayOutputStream channel = new ByteArrayOutputStream();
+        new Utf8JsonWriter(Channels.newChannel(channel), JsonWriter.Style.pretty("  ")).openList().value(value).value(value).closeList();
+        assertArrayEquals(expected.toByteArray(), channel.toByteArray());
+
+        ByteBuffer buffer = ByteBuffer.allocate(expected.size());
+        new Utf8JsonWriter(buffer, JsonWriter.Style.pretty("  ")).openList().value(value).value(value).closeList();
+        assertArrayEquals(expected.toByteArray(), buffer.array());
+    }
+
+    @Test
+    void flush_incompleteDocument() throws IOException {
+        StringWriter stringWriter = new StringWriter();
+        JsonWriter writer = new JsonWriter(stringWriter, JsonWriter.Style.compact());
+        writer.openMap().key("key").value(1);
+        assertEquals("", stringWriter.toString());
+
+        writer.flush();
+        assertEquals("{\"key\":1", stringWriter.toString());
+    }
+
     @ParameterizedTest
     @MethodSource
     void value_boolean_onRoot(boolean value, JsonWriter.Style style, String expected)
@@ -215,7 +293,7 @@ class JsonWriterTest {
 
     static Stream<Arguments> value_float_onRoot() {
         return multiValueTestArgs(
-                List.of(0, Float.MAX_VALUE, Float.MIN_VALUE),
+                List.of(0, Float.MAX_VALUE, Float.MIN_VALUE, 0.1f, 1.0e10f, 6.9203274e25f),
                 //language=JSON
                 List.of(
                         """
@@ -223,7 +301,13 @@ class JsonWriterTest {
                         """
                         3.4028235e38""",
                         """
-                        1.4e-45"""
+                        1.4e-45""",
+                        """
+                        0.1""",
+                        """
+                        1.0e10""",
+                        """
+                        6.9203274e25"""
                 )
         );
     }
@@ -237,7 +321,7 @@ class JsonWriterTest {
 
     static Stream<Arguments> value_double_onRoot() {
         return multiValueTestArgs(
-                List.of(0, Double.MAX_VALUE, Double.MIN_VALUE),
+                List.of(0, Double.MAX_VALUE, Double.MIN_VALUE, -0.0, 100.0, 0.001, 1e7, 9999999.5, 1e-5, 2.9842937460526197e25),
                 //language=JSON
                 List.of(
                         """
@@ -245,7 +329,56 @@ class JsonWriterTest {
                         """
                         1.7976931348623157e308""",
                         """
-                        4.9e-324"""
+                        4.9e-324""",
+                        """
+                        -0.0""",
+                        """
+                        100.0""",
+                        """
+                        0.001""",
+                        """
+                        1.0e7""",
+                        """
+                        9999999.5""",
+                        """
+                        1.0e-5""",
+                        """
+                        2.9842937460526197e25"""
+                )
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void value_Number_onRoot(Number value, JsonWriter.Style style, String expected)
+            throws IOException {
+        writeTest(writer -> writer.value(value), style, expected);
+    }
+
+    static Stream<Arguments> value_Number_onRoot() {
+        return multiValueTestArgs(
+                List.of(
+                        Integer.MIN_VALUE,
+                        Long.MAX_VALUE,
+                        1.5f,
+                        0.1,
+                        new DataNumber.GenericNumber("123456789012345678901234567890"),
+                        new BigDecimal("1.00000000000000000001")
+                ),
+                //language=JSON
+                List.of(
+                        """
+                        -2147483648""",
+                        """
+                        9223372036854775807""",
+                        """
+                        1.5""",
+                        """
+                        0.1""",
+                        """
+                        123456789012345678901234567890""",
+                        """
+                        1.00000000000000000001"""
                 )
         );
     }
@@ -829,7 +962,7 @@ class JsonWriterTest {
      * @throws IOException If this happens, the test fails.
      */
     private static void writeTest(
-            CatchingConsumer<JsonWriter, IOException> consumer,
+            CatchingConsumer<DataWriter, IOException> consumer,
             JsonWriter.Style style,
             String expected
     ) throws IOException {
@@ -838,6 +971,11 @@ class JsonWriterTest {
         consumer.accept(new JsonWriter(stringWriter, style));
 
         assertEquals(expected, stringWriter.toString());
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        consumer.accept(new Utf8JsonWriter(stream, style));
+
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), stream.toByteArray());
     }
 
     /**
@@ -912,7 +1050,7 @@ class JsonWriterTest {
      * @param consumer the write operation
      * @param expected the expected exception
      */
-    void throwsTest(CatchingConsumer<JsonWriter, IOException> consumer, String expected) {
+    void throwsTest(CatchingConsumer<DataWriter, IOException> consumer, String expected) {
         throwsTest(consumer, IllegalArgumentException.class, expected);
     }
 
@@ -922,16 +1060,14 @@ class JsonWriterTest {
      * @param consumer the write operation
      * @param expected the expected exception
      */
-    <T extends Exception> void throwsTest(CatchingConsumer<JsonWriter, IOException> consumer, Class<T> exceptionType, String expected) {
-        StringWriter stringWriter = new StringWriter();
-        T exception = assertThrows(
-                exceptionType,
-                () -> consumer.accept(new JsonWriter(
-                        stringWriter,
-                        JsonWriter.Style.compact()
-                ))
-        );
-        assertEquals(expected, exception.getMessage());
+    <T extends Exception> void throwsTest(CatchingConsumer<DataWriter, IOException> consumer, Class<T> exceptionType, String expected) {
+        for (DataWriter writer : List.of(
+                new JsonWriter(new StringWriter(), JsonWriter.Style.compact()),
+                new Utf8JsonWriter(new ByteArrayOutputStream(), JsonWriter.Style.compact())
+        )) {
+            T exception = assertThrows(exceptionType, () -> consumer.accept(writer));
+            assertEquals(expected, exception.getMessage());
+        }
     }
 
 }
\ No newline at end of file
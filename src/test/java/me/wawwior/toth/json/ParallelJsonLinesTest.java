@@ -0,0 +1,65 @@
+package me.wawwior.toth.json;
+
+import me.wawwior.toth.codec.Codec;
+import me.wawwior.toth.codec.Result;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParallelJsonLinesTest {
+
+    @Test
+    void decode_matchesSequential() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            if (i % 100 == 7) {
+                builder.append("[\"bad\"]\n");
+                expected.add("error");
+            } else if (i % 500 == 3) {
+                // longer than a chunk
+                builder.append("[").append(i).append(", 0".repeat(100)).append("]\r\n\n");
+                expected.add(i + "+100");
+            } else {
+                builder.append("[").append(i).append(", ").append(i + 1).append("]\n");
+                expected.add(i + "+1");
+            }
+        }
+        Path path = Files.createTempFile("lines", ".jsonl");
+        path.toFile().deleteOnExit();
+        Files.writeString(path, builder.append("[2000]"));
+        expected.add("2000+0");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<String> ordered = describe(ParallelJsonLines.decode(path, Codec.INT_CODEC.listOf(), true, executor, 64, 4));
+            assertEquals(expected, ordered);
+
+            List<String> unordered = describe(ParallelJsonLines.decode(path, Codec.INT_CODEC.listOf(), false, executor, 64, 4));
+            unordered.sort(Comparator.naturalOrder());
+            expected.sort(Comparator.naturalOrder());
+            assertEquals(expected, unordered);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<String> describe(Stream<Result<List<Integer>, String>> results) {
+        try (results) {
+            return results
+                    .map(result -> result.isPresent() ? result.value().get(0) + "+" + (result.value().size() - 1) : "error")
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+}
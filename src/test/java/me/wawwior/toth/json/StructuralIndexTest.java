@@ -0,0 +1,43 @@
+package me.wawwior.toth.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StructuralIndexTest {
+
+    @Test
+    void next_findsStructuralBytes() {
+        String json = "{\"a\\\"b\": [1, true], 'c\"d': \"x\\\\\"}";
+        assertEquals(List.of(0, 1, 3, 6, 7, 9, 10, 11, 13, 17, 18, 20, 24, 25, 27, 29, 31, 32), positions(json, 0));
+    }
+
+    @Test
+    void next_acrossBlocks() {
+        String padding = " ".repeat(100);
+        String json = "[\"" + "a".repeat(70) + "\\" + "\"" + padding + "\"," + padding + "123" + padding + "]";
+        int close = json.indexOf("\",");
+        assertEquals(List.of(0, 1, json.indexOf('\\'), close, close + 1, json.indexOf('1'), json.length() - 1), positions(json, 0));
+    }
+
+    @Test
+    void next_afterStart() {
+        String json = "xx [1]";
+        assertEquals(List.of(3, 4, 5), positions(json, 3));
+    }
+
+    private static List<Integer> positions(String json, int start) {
+        ByteBuffer buffer = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+        StructuralIndex index = new StructuralIndex(buffer, start, buffer.limit(), new ByteClassifier());
+        List<Integer> positions = new ArrayList<>();
+        for (int p = index.next(start); p < buffer.limit(); p = index.next(p + 1)) positions.add(p);
+        // stepping back works too
+        assertEquals(positions.isEmpty() ? buffer.limit() : positions.get(0), index.next(start));
+        return positions;
+    }
+}
@@ -0,0 +1,82 @@
+package me.wawwior.toth.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringCursorTest {
+
+    @Test
+    void readUntil_acrossWindowBoundary() throws IOException {
+        StringCursor cursor = StringCursor.of(new StringReader("abcdefghij,klm"), 4);
+
+        assertEquals("abcdefghij", cursor.readUntil(",", false));
+        assertEquals(",", cursor.readUntil(",", true));
+        assertEquals("klm", cursor.readUntil(",", true));
+        assertEquals(Optional.empty(), cursor.readChar());
+    }
+
+    @Test
+    void peek_survivesRefill() throws IOException {
+        StringCursor cursor = StringCursor.of(new StringReader("0123456789abcdef"), 4);
+
+        StringCursor peek = cursor.peek();
+        assertEquals("0123456789", cursor.readUntil("a", false));
+
+        assertEquals("0123456789abcdef", peek.readUntil("", false));
+        assertEquals(Optional.of('a'), cursor.readChar());
+    }
+
+    @Test
+    void readUntil_spanningManyChunks() throws IOException {
+        String token = "x".repeat(1000);
+        StringCursor cursor = StringCursor.of(new StringReader(token + "," + token), 16);
+
+        assertEquals(token, cursor.readUntil(",", false));
+        assertEquals(Optional.of(','), cursor.readChar());
+        assertEquals(token, cursor.readUntil(",", false));
+        assertEquals(Optional.empty(), cursor.readChar());
+    }
+
+    @Test
+    void appendUntil_acrossChunks() throws IOException {
+        for (StringCursor cursor : List.of(
+                StringCursor.of("abcdefg\\hij\"k"),
+                StringCursor.of(new StringReader("abcdefg\\hij\"k"), 3)
+        )) {
+            StringBuilder builder = new StringBuilder();
+            assertEquals('\\', cursor.appendUntil(builder, '"', '\\'));
+            cursor.skip(1);
+            assertEquals('"', cursor.appendUntil(builder, '"', '\\'));
+            assertEquals("abcdefghij", builder.toString());
+            cursor.skip(1);
+            assertEquals(-1, cursor.appendUntil(builder, '"', '\\'));
+            assertEquals("abcdefghijk", builder.toString());
+        }
+    }
+
+    @Test
+    void markReset_acrossChunks() throws IOException {
+        for (StringCursor cursor : List.of(
+                StringCursor.of("0123456789"),
+                StringCursor.of(new StringReader("0123456789"), 3)
+        )) {
+            cursor.skip(1);
+            cursor.mark();
+            cursor.skip(7);
+            assertEquals('8', cursor.peekChar());
+            cursor.reset();
+            assertEquals('1', cursor.peekChar());
+            assertThrows(IllegalStateException.class, cursor::reset);
+
+            cursor.skip(100);
+            assertEquals(-1, cursor.peekChar());
+        }
+    }
+
+}
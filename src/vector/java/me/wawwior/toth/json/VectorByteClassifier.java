@@ -0,0 +1,49 @@
+package me.wawwior.toth.json;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Classifies whole blocks with the Vector API, a vector at a time. Blocks cut short by the limit are classified by the
+ * scalar implementation.
+ * <p>
+ * Only built with {@code -Pvector}, and only loaded by {@link ByteClassifier#create()} if the
+ * {@code jdk.incubator.vector} module is present.
+ */
+final class VectorByteClassifier extends ByteClassifier {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED.length() <= BLOCK_SIZE
+            ? ByteVector.SPECIES_PREFERRED
+            : ByteVector.SPECIES_64;
+
+    private final byte[] block = new byte[BLOCK_SIZE];
+
+    @Override
+    void classify(ByteBuffer buffer, int offset, int limit, long[] bitmaps) {
+        if (limit - offset < BLOCK_SIZE) {
+            super.classify(buffer, offset, limit, bitmaps);
+            return;
+        }
+        buffer.get(offset, block);
+
+        long whitespace = 0;
+        long quotes = 0;
+        long structural = 0;
+        for (int i = 0; i < BLOCK_SIZE; i += SPECIES.length()) {
+            ByteVector v = ByteVector.fromArray(SPECIES, block, i);
+            VectorMask<Byte> w = v.eq((byte) ' ').or(v.eq((byte) '\n')).or(v.eq((byte) '\r')).or(v.eq((byte) '\t'));
+            VectorMask<Byte> q = v.eq((byte) '"').or(v.eq((byte) '\'')).or(v.eq((byte) '\\'));
+            VectorMask<Byte> s = v.eq((byte) '{').or(v.eq((byte) '}')).or(v.eq((byte) '[')).or(v.eq((byte) ']'))
+                    .or(v.eq((byte) ':')).or(v.eq((byte) ','));
+            whitespace |= w.toLong() << i;
+            quotes |= q.toLong() << i;
+            structural |= s.toLong() << i;
+        }
+        bitmaps[WHITESPACE] = whitespace;
+        bitmaps[QUOTES] = quotes;
+        bitmaps[STRUCTURAL] = structural;
+    }
+}